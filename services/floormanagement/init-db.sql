@@ -40,6 +40,9 @@ CREATE TABLE IF NOT EXISTS public.floor
     current boolean NOT NULL,
     deleted boolean NOT NULL,
     furniture_ids bigint[],
+    corner_ids bigint[],
+    wall_ids bigint[],
+    geometry_hash character varying(64) COLLATE pg_catalog."default",
     name character varying(255) COLLATE pg_catalog."default" NOT NULL,
     CONSTRAINT floor_pkey PRIMARY KEY (id, version)
 )
@@ -49,6 +52,37 @@ TABLESPACE pg_default;
 ALTER TABLE IF EXISTS public.floor
     OWNER to postgres;
 
+-- Index: floor_current_id_idx
+
+-- DROP INDEX IF EXISTS public.floor_current_id_idx;
+
+CREATE INDEX IF NOT EXISTS floor_current_id_idx
+    ON public.floor USING btree
+    (id ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE current AND NOT deleted;
+
+-- Table: public.floor_history
+
+-- DROP TABLE IF EXISTS public.floor_history;
+
+CREATE TABLE IF NOT EXISTS public.floor_history
+(
+    id bigint NOT NULL,
+    version timestamp(6) with time zone NOT NULL,
+    current boolean NOT NULL,
+    deleted boolean NOT NULL,
+    furniture_ids bigint[],
+    corner_ids bigint[],
+    wall_ids bigint[],
+    geometry_hash character varying(64) COLLATE pg_catalog."default",
+    name character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    CONSTRAINT floor_history_pkey PRIMARY KEY (id, version)
+) PARTITION BY RANGE (version);
+
+ALTER TABLE IF EXISTS public.floor_history
+    OWNER to postgres;
+
 -- Table: public.corner
 
 -- DROP TABLE IF EXISTS public.corner;
@@ -59,12 +93,7 @@ CREATE TABLE IF NOT EXISTS public.corner
     positionx real NOT NULL,
     positiony real NOT NULL,
     floor_id bigint NOT NULL,
-    floor_version timestamp(6) with time zone NOT NULL,
-    CONSTRAINT corner_pkey PRIMARY KEY (id),
-    CONSTRAINT fkk2p3k5vcvdb37y2agmpqto2mc FOREIGN KEY (floor_id, floor_version)
-        REFERENCES public.floor (id, version) MATCH SIMPLE
-        ON UPDATE NO ACTION
-        ON DELETE NO ACTION
+    CONSTRAINT corner_pkey PRIMARY KEY (id)
 )
 
 TABLESPACE pg_default;
@@ -81,17 +110,12 @@ CREATE TABLE IF NOT EXISTS public.wall
     id bigint NOT NULL,
     end_corner_id bigint NOT NULL,
     floor_id bigint NOT NULL,
-    floor_version timestamp(6) with time zone NOT NULL,
     start_corner_id bigint NOT NULL,
     CONSTRAINT wall_pkey PRIMARY KEY (id),
     CONSTRAINT fkgjyh908kq01vt76bog9br0f2b FOREIGN KEY (end_corner_id)
         REFERENCES public.corner (id) MATCH SIMPLE
         ON UPDATE NO ACTION
         ON DELETE NO ACTION,
-    CONSTRAINT fkibc6fil6ckoj0rl7xtsiemqio FOREIGN KEY (floor_id, floor_version)
-        REFERENCES public.floor (id, version) MATCH SIMPLE
-        ON UPDATE NO ACTION
-        ON DELETE NO ACTION,
     CONSTRAINT fkmqqpxr78b7l0781au3xor6y9o FOREIGN KEY (start_corner_id)
         REFERENCES public.corner (id) MATCH SIMPLE
         ON UPDATE NO ACTION
@@ -0,0 +1,30 @@
+-- Upgrades databases created from an init-db.sql where every floor version owned its own corners
+-- and walls. Floor versions now reference shared corners and walls by ID.
+
+ALTER TABLE IF EXISTS public.floor
+    ADD COLUMN IF NOT EXISTS corner_ids bigint[],
+    ADD COLUMN IF NOT EXISTS wall_ids bigint[],
+    ADD COLUMN IF NOT EXISTS geometry_hash character varying(64) COLLATE pg_catalog."default";
+
+UPDATE public.floor
+    SET corner_ids = COALESCE((
+            SELECT array_agg(corner.id ORDER BY corner.id)
+            FROM public.corner
+            WHERE corner.floor_id = floor.id
+                AND corner.floor_version = floor.version
+        ), '{}'),
+        wall_ids = COALESCE((
+            SELECT array_agg(wall.id ORDER BY wall.id)
+            FROM public.wall
+            WHERE wall.floor_id = floor.id
+                AND wall.floor_version = floor.version
+        ), '{}')
+    WHERE corner_ids IS NULL;
+
+ALTER TABLE IF EXISTS public.corner
+    DROP CONSTRAINT IF EXISTS fkk2p3k5vcvdb37y2agmpqto2mc,
+    DROP COLUMN IF EXISTS floor_version;
+
+ALTER TABLE IF EXISTS public.wall
+    DROP CONSTRAINT IF EXISTS fkibc6fil6ckoj0rl7xtsiemqio,
+    DROP COLUMN IF EXISTS floor_version;
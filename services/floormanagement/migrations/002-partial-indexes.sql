@@ -0,0 +1,9 @@
+-- Adds a partial index on current, non-deleted floors. The lookups by ID only ever read these
+-- rows, so the index stays small however many old versions accumulate.
+-- CONCURRENTLY keeps the tables writable meanwhile, so this script must not run inside a
+-- transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS floor_current_id_idx
+    ON public.floor USING btree
+    (id ASC NULLS LAST)
+    WHERE current AND NOT deleted;
@@ -0,0 +1,23 @@
+-- Adds the history table that non-current floor versions are archived into. Its monthly
+-- partitions are created by the archiver on demand.
+
+-- Table: public.floor_history
+
+-- DROP TABLE IF EXISTS public.floor_history;
+
+CREATE TABLE IF NOT EXISTS public.floor_history
+(
+    id bigint NOT NULL,
+    version timestamp(6) with time zone NOT NULL,
+    current boolean NOT NULL,
+    deleted boolean NOT NULL,
+    furniture_ids bigint[],
+    corner_ids bigint[],
+    wall_ids bigint[],
+    geometry_hash character varying(64) COLLATE pg_catalog."default",
+    name character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    CONSTRAINT floor_history_pkey PRIMARY KEY (id, version)
+) PARTITION BY RANGE (version);
+
+ALTER TABLE IF EXISTS public.floor_history
+    OWNER to postgres;
@@ -0,0 +1,47 @@
+package com.warehousemanager.floormanagement;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) describing the changes to apply to a Floor entity. Omitted or null
+ * fields leave the corresponding part of the floor unchanged. Existing corners are referenced by
+ * their stored IDs, added corners by client-side IDs that must not clash with them.
+ *
+ * @param name The new name of the floor, or null to keep the current name.
+ * @param addedCorners The corners to add, identified by client-side IDs.
+ * @param removedCornerIds The IDs of the corners to remove, together with their walls.
+ * @param movedCorners The existing corners to move, with their new positions.
+ * @param addedWalls The walls to add, referencing existing or added corners.
+ * @param removedWalls The walls to remove, identified by their start and end corner IDs.
+ * @param addedFurniture The furniture instances to create on the floor.
+ * @param movedFurniture The existing furniture instances to update.
+ * @param removedFurnitureInstanceIds The IDs of the furniture instances to remove from the floor.
+ */
+public record FloorPatchDataTransferObject(
+    String name,
+    List<CornerDataTransferObject> addedCorners,
+    List<Long> removedCornerIds,
+    List<CornerDataTransferObject> movedCorners,
+    List<WallDataTransferObject> addedWalls,
+    List<WallDataTransferObject> removedWalls,
+    List<FurnitureQueryDataTransferObject> addedFurniture,
+    List<FurnitureUpdateQueryDataTransferObject> movedFurniture,
+    List<Long> removedFurnitureInstanceIds) {
+
+  /**
+   * Checks whether the changes affect the corners or walls of the floor.
+   *
+   * @return true if any corner or wall is added, removed or moved, false otherwise
+   */
+  public boolean changesGeometry() {
+    return isNotEmpty(addedCorners)
+        || isNotEmpty(removedCornerIds)
+        || isNotEmpty(movedCorners)
+        || isNotEmpty(addedWalls)
+        || isNotEmpty(removedWalls);
+  }
+
+  private static boolean isNotEmpty(List<?> list) {
+    return list != null && !list.isEmpty();
+  }
+}
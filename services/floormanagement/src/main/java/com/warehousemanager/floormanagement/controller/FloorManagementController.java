@@ -2,107 +2,163 @@ package com.warehousemanager.floormanagement.controller;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.warehousemanager.floormanagement.CornerDataTransferObject;
 import com.warehousemanager.floormanagement.FloorDataTransferObject;
-import com.warehousemanager.floormanagement.FloorResponseDataTransferObject;
+import com.warehousemanager.floormanagement.FloorPatchDataTransferObject;
 import com.warehousemanager.floormanagement.FloorUpdateDataTransferObject;
 import com.warehousemanager.floormanagement.FurnitureInstanceId;
 import com.warehousemanager.floormanagement.FurnitureUpdateQueryDataTransferObject;
 import com.warehousemanager.floormanagement.WallDataTransferObject;
-import com.warehousemanager.floormanagement.entities.Corner;
 import com.warehousemanager.floormanagement.entities.Floor;
-import com.warehousemanager.floormanagement.entities.Wall;
-import com.warehousemanager.floormanagement.repositories.CornerRepository;
 import com.warehousemanager.floormanagement.repositories.FloorRepository;
-import com.warehousemanager.floormanagement.repositories.WallRepository;
+import com.warehousemanager.floormanagement.services.FloorGeometryService;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /** Controller for managing floors. */
 @RestController
 public class FloorManagementController {
-  private final DiscoveryClient discoveryClient;
   private final RestClient restClient;
   private final FloorRepository floorRepository;
-  private final WallRepository wallRepository;
-  private final CornerRepository cornerRepository;
+  private final FloorGeometryService floorGeometryService;
+  private final ObjectMapper objectMapper;
+  private final EntityManager entityManager;
+  private final TransactionTemplate readOnlyTransaction;
   private static final Logger logger = LoggerFactory.getLogger(FloorManagementController.class);
+  private static final String FURNITURE_SERVICE_URL = "http://furniture-management";
+  private static final String SERVER_TIMING_HEADER = "Server-Timing";
+  private static final String RESOLUTION_STATISTICS_HEADER = "X-Resolution-Statistics";
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final int MAX_PAGE_SIZE = 1000;
 
   /**
    * Constructor for FloorManagementController.
    *
-   * @param discoveryClient Client for service discovery.
    * @param restClientBuilder Builder for creating RestClient instances.
    * @param floorRepository Repository for managing Floor entities.
-   * @param wallRepository Repository for managing Wall entities.
-   * @param cornerRepository Repository for managing Corner entities.
+   * @param floorGeometryService Service for persisting and retrieving corners and walls.
+   * @param objectMapper Mapper for writing streamed JSON responses.
+   * @param entityManager Entity manager for detaching streamed floors once they are written.
+   * @param transactionManager Transaction manager for the transactions floors are streamed in.
    */
   public FloorManagementController(
-      DiscoveryClient discoveryClient,
       RestClient.Builder restClientBuilder,
       FloorRepository floorRepository,
-      WallRepository wallRepository,
-      CornerRepository cornerRepository) {
-    this.discoveryClient = discoveryClient;
+      FloorGeometryService floorGeometryService,
+      ObjectMapper objectMapper,
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager) {
     this.restClient = restClientBuilder.build();
     this.floorRepository = floorRepository;
-    this.wallRepository = wallRepository;
-    this.cornerRepository = cornerRepository;
+    this.floorGeometryService = floorGeometryService;
+    this.objectMapper = objectMapper;
+    this.entityManager = entityManager;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
   }
 
+  /**
+   * Retrieves all current floors. The floors are read from a database cursor and written to the
+   * response one by one, so the heap use does not grow with the number of floors.
+   *
+   * @return the floors as a JSON array, ordered by ID
+   */
   @GetMapping("/floors")
-  public Iterable<Floor> getAllFloors() {
-    return floorRepository.findByDeletedFalseAndCurrentTrue();
+  public ResponseEntity<StreamingResponseBody> getAllFloors() {
+    StreamingResponseBody body =
+        outputStream ->
+            readOnlyTransaction.executeWithoutResult(
+                status -> {
+                  try (Stream<Floor> floors =
+                          floorRepository.streamByDeletedFalseAndCurrentTrueOrderByIdAsc();
+                      JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.writeStartArray();
+                    Iterator<Floor> iterator = floors.iterator();
+                    while (iterator.hasNext()) {
+                      Floor floor = iterator.next();
+                      generator.writePOJO(floor);
+                      entityManager.detach(floor);
+                    }
+                    generator.writeEndArray();
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+    return ResponseEntity.ok().contentType(APPLICATION_JSON).body(body);
+  }
+
+  /**
+   * Retrieves a page of current floors using keyset pagination. If the page is full, the ID to
+   * pass as {@code afterId} for the next page is returned in the X-Next-Cursor header.
+   *
+   * @param afterId the ID after which the page starts, 0 for the first page
+   * @param limit the maximum number of floors in the page
+   * @return the floors of the page, ordered by ID
+   */
+  @GetMapping(value = "/floors", params = "limit")
+  public ResponseEntity<List<Floor>> getFloorPage(
+      @RequestParam(defaultValue = "0") Long afterId, @RequestParam int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    List<Floor> floors =
+        floorRepository.findByIdGreaterThanAndDeletedFalseAndCurrentTrueOrderByIdAsc(
+            afterId, Limit.of(limit));
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (floors.size() == limit) {
+      response.header(NEXT_CURSOR_HEADER, String.valueOf(floors.get(floors.size() - 1).getId()));
+    }
+    return response.body(floors);
   }
 
   @PostMapping("/floors")
   public Floor saveFloor(@RequestBody FloorDataTransferObject floorDataTransferObject) {
     Long nextId = floorRepository.getNextId();
     Floor floor = new Floor(nextId, floorDataTransferObject.name());
+    floorGeometryService.saveGeometry(
+        floor, floorDataTransferObject.corners(), floorDataTransferObject.walls(), null);
     floor = floorRepository.save(floor);
 
-    Map<Long, Corner> corners = new HashMap<>();
-
-    for (CornerDataTransferObject cornerDataTransferObject : floorDataTransferObject.corners()) {
-      Corner corner =
-          new Corner(cornerDataTransferObject.positionX, cornerDataTransferObject.positionY);
-      corner.setFloor(floor);
-      corner = cornerRepository.save(corner);
-      corners.put(cornerDataTransferObject.id, corner);
-    }
-
-    for (WallDataTransferObject wallDataTransferObject : floorDataTransferObject.walls()) {
-      Corner startCorner = corners.get(wallDataTransferObject.startCornerId);
-      Corner endCorner = corners.get(wallDataTransferObject.endCornerId);
-
-      if (startCorner == null || endCorner == null) {
-        throw new IllegalArgumentException("Invalid corner IDs in wall data transfer object.");
-      }
-
-      Wall wall = new Wall(startCorner, endCorner);
-      wall.setFloor(floor);
-      wallRepository.save(wall);
-    }
-
-    ServiceInstance serviceInstance = discoveryClient.getInstances("furniture-management").get(0);
-    String url = serviceInstance.getUri() + "/furniture/instances/batch";
+    String url = FURNITURE_SERVICE_URL + "/furniture/instances/batch";
 
     List<FurnitureInstanceId> furnitureInstances =
         restClient
@@ -123,52 +179,184 @@ public class FloorManagementController {
     return floor;
   }
 
+  /**
+   * Retrieves a floor together with its corners, walls and furniture instances. Serves the same
+   * response as {@link #getFullFloorById(Long)}.
+   *
+   * @param id the ID of the floor
+   * @return the floor aggregate
+   */
   @GetMapping("/floors/{id}")
-  public FloorResponseDataTransferObject getFloorById(@PathVariable Long id) {
+  public ResponseEntity<StreamingResponseBody> getFloorById(@PathVariable Long id) {
+    return getFullFloorById(id);
+  }
+
+  /**
+   * Retrieves a floor together with its corners, walls and furniture instances in a single
+   * response. The furniture instances are resolved by furniture-management with batched calls and
+   * copied into the response as they arrive, without being parsed or buffered. The durations of
+   * the database stage and of the wait for furniture-management to start responding are reported
+   * in the Server-Timing header.
+   *
+   * @param id the ID of the floor
+   * @return the floor aggregate
+   */
+  @GetMapping("/floors/{id}/full")
+  public ResponseEntity<StreamingResponseBody> getFullFloorById(@PathVariable Long id) {
+    long start = System.nanoTime();
     Floor floor =
         floorRepository
             .findByIdEqualsAndDeletedFalseAndCurrentTrue(id)
             .orElseThrow(() -> new IllegalArgumentException("Floor not found with id: " + id));
+    List<CornerDataTransferObject> corners = getCorners(floor);
+    List<WallDataTransferObject> walls = getWalls(floor);
+    long databaseEnd = System.nanoTime();
 
-    List<Corner> corners = cornerRepository.findByFloor(floor);
-    List<Wall> walls = wallRepository.findByFloor(floor);
-
-    List<CornerDataTransferObject> cornerDataTransferObjects =
-        corners.stream()
-            .map(
-                corner ->
-                    new CornerDataTransferObject(
-                        corner.getId(), corner.getPositionX(), corner.getPositionY()))
-            .toList();
-    List<WallDataTransferObject> wallDataTransferObjects =
-        walls.stream()
-            .map(
-                wall ->
-                    new WallDataTransferObject(
-                        wall.getStartCorner().getId(), wall.getEndCorner().getId()))
-            .toList();
-
+    ClientHttpResponse furnitureResponse = null;
+    String resolutionStatistics = null;
     List<Long> furnitureIds = floor.getFurnitureIds();
-    ServiceInstance serviceInstance = discoveryClient.getInstances("furniture-management").get(0);
-    String url = serviceInstance.getUri() + "/furniture/instances/batch";
-    String furnitureIdsParameter =
-        furnitureIds.stream().map(String::valueOf).collect(Collectors.joining(","));
-    JsonNode furniture =
-        restClient
-            .get()
-            .uri(url + "?furnitureInstanceIds=" + furnitureIdsParameter)
-            .retrieve()
-            .body(JsonNode.class);
-
-    FloorResponseDataTransferObject floorDto =
-        new FloorResponseDataTransferObject(
-            floor.getId(),
-            floor.getVersion(),
-            floor.getName(),
-            cornerDataTransferObjects,
-            wallDataTransferObjects,
-            furniture);
-    return floorDto;
+    if (furnitureIds != null && !furnitureIds.isEmpty()) {
+      furnitureResponse = openFurnitureInstances(furnitureIds);
+      closeWhenRequestCompletes(furnitureResponse);
+      resolutionStatistics = furnitureResponse.getHeaders().getFirst(RESOLUTION_STATISTICS_HEADER);
+    }
+    long furnitureEnd = System.nanoTime();
+
+    String serverTiming =
+        String.format(
+            Locale.ROOT,
+            "db;dur=%.1f, furniture;dur=%.1f",
+            (databaseEnd - start) / 1_000_000.0,
+            (furnitureEnd - databaseEnd) / 1_000_000.0);
+    logger.info("Assembled floor {} with timings: {}", id, serverTiming);
+
+    ClientHttpResponse furniture = furnitureResponse;
+    StreamingResponseBody body =
+        outputStream -> {
+          try (furniture;
+              JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeNumberField("id", floor.getId());
+            generator.writePOJOField("version", floor.getVersion());
+            generator.writeStringField("name", floor.getName());
+            generator.writePOJOField("corners", corners);
+            generator.writePOJOField("walls", walls);
+            generator.writeFieldName("furniture");
+            if (furniture == null) {
+              generator.writeRawValue("[]");
+            } else {
+              // Completes the field with an empty raw value, the furniture JSON is copied after it
+              generator.writeRawValue("");
+              generator.flush();
+              furniture.getBody().transferTo(outputStream);
+            }
+            generator.writeEndObject();
+          }
+        };
+
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(APPLICATION_JSON)
+            .header(SERVER_TIMING_HEADER, serverTiming);
+    if (resolutionStatistics != null) {
+      response.header(RESOLUTION_STATISTICS_HEADER, resolutionStatistics);
+    }
+    return response.body(body);
+  }
+
+  /**
+   * Requests furniture instances from furniture-management without reading the response body, so
+   * that it can be copied into a response as it arrives.
+   *
+   * @param furnitureIds The IDs of the furniture instances.
+   * @return The open response with a successful status, which the caller has to close.
+   * @throws IllegalStateException If furniture-management responds with an error status.
+   */
+  private ClientHttpResponse openFurnitureInstances(List<Long> furnitureIds) {
+    return restClient
+        .post()
+        .uri(FURNITURE_SERVICE_URL + "/furniture/instances/batch/query")
+        .contentType(APPLICATION_JSON)
+        .body(furnitureIds)
+        .exchange(
+            (request, response) -> {
+              if (response.getStatusCode().isError()) {
+                HttpStatusCode statusCode = response.getStatusCode();
+                response.close();
+                throw new IllegalStateException(
+                    "Furniture instances could not be retrieved: " + statusCode);
+              }
+              return response;
+            },
+            false);
+  }
+
+  /**
+   * Closes a furniture response once the asynchronous processing of the current request has ended.
+   * The streamed body closes the response itself, but it never runs if the client goes away or the
+   * request times out before it starts, which would otherwise leak the pooled connection. Closing
+   * a response twice has no effect.
+   *
+   * @param furnitureResponse The open furniture response.
+   */
+  private static void closeWhenRequestCompletes(ClientHttpResponse furnitureResponse) {
+    HttpServletRequest request =
+        ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+    WebAsyncUtils.getAsyncManager(request)
+        .registerCallableInterceptor(
+            furnitureResponse,
+            new CallableProcessingInterceptor() {
+              @Override
+              public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                furnitureResponse.close();
+              }
+            });
+  }
+
+  /**
+   * Retrieves the corners of a floor.
+   *
+   * @param floor The floor whose corners are retrieved.
+   * @return The corners as data transfer objects.
+   */
+  private List<CornerDataTransferObject> getCorners(Floor floor) {
+    return floorGeometryService.getCorners(floor).stream()
+        .map(
+            corner ->
+                new CornerDataTransferObject(
+                    corner.getId(), corner.getPositionX(), corner.getPositionY()))
+        .toList();
+  }
+
+  /**
+   * Retrieves the walls of a floor.
+   *
+   * @param floor The floor whose walls are retrieved.
+   * @return The walls as data transfer objects.
+   */
+  private List<WallDataTransferObject> getWalls(Floor floor) {
+    return floorGeometryService.getWalls(floor).stream()
+        .map(
+            wall ->
+                new WallDataTransferObject(
+                    wall.getStartCorner().getId(), wall.getEndCorner().getId()))
+        .toList();
+  }
+
+  /**
+   * Retrieves all versions of a floor, including archived ones.
+   *
+   * @param id the ID of the floor
+   * @return the versions of the floor, newest first
+   */
+  @GetMapping("/floors/{id}/history")
+  public List<Floor> getFloorHistory(@PathVariable Long id) {
+    List<Floor> versions = floorRepository.findAllVersionsById(id);
+    if (versions.isEmpty()) {
+      throw new IllegalArgumentException("Floor not found with id: " + id);
+    }
+    return versions;
   }
 
   @PutMapping("/floors/{id}")
@@ -181,33 +369,14 @@ public class FloorManagementController {
 
     Floor newFloor = new Floor(existingFloor);
     newFloor.setName(floorDataTransferObject.name());
+    floorGeometryService.saveGeometry(
+        newFloor,
+        floorDataTransferObject.corners(),
+        floorDataTransferObject.walls(),
+        existingFloor);
     newFloor = floorRepository.save(newFloor);
 
-    Map<Long, Corner> corners = new HashMap<>();
-
-    for (CornerDataTransferObject cornerDataTransferObject : floorDataTransferObject.corners()) {
-      Corner corner =
-          new Corner(cornerDataTransferObject.positionX, cornerDataTransferObject.positionY);
-      corner.setFloor(newFloor);
-      corner = cornerRepository.save(corner);
-      corners.put(cornerDataTransferObject.id, corner);
-    }
-
-    for (WallDataTransferObject wallDataTransferObject : floorDataTransferObject.walls()) {
-      Corner startCorner = corners.get(wallDataTransferObject.startCornerId);
-      Corner endCorner = corners.get(wallDataTransferObject.endCornerId);
-
-      if (startCorner == null || endCorner == null) {
-        throw new IllegalArgumentException("Invalid corner IDs in wall data transfer object.");
-      }
-
-      Wall wall = new Wall(startCorner, endCorner);
-      wall.setFloor(newFloor);
-      wallRepository.save(wall);
-    }
-
-    ServiceInstance serviceInstance = discoveryClient.getInstances("furniture-management").get(0);
-    String url = serviceInstance.getUri() + "/furniture/instances";
+    String url = FURNITURE_SERVICE_URL + "/furniture/instances";
 
     List<FurnitureUpdateQueryDataTransferObject> newFurniture = new ArrayList<>();
 
@@ -232,16 +401,8 @@ public class FloorManagementController {
             .body(new ParameterizedTypeReference<List<FurnitureInstanceId>>() {});
     logger.info("Furniture instances created: {}", newFurnitureInstanceIds);
 
+    updateFurnitureInstances(existingFurniture);
     for (FurnitureUpdateQueryDataTransferObject furnitureDto : existingFurniture) {
-      JsonNode updatedFurniture =
-          restClient
-              .put()
-              .uri(url + "/" + furnitureDto.furnitureInstanceId())
-              .contentType(APPLICATION_JSON)
-              .body(furnitureDto)
-              .retrieve()
-              .body(JsonNode.class);
-      logger.info("Furniture instance updated: {}", updatedFurniture);
       newFurnitureInstanceIds.add(new FurnitureInstanceId(furnitureDto.furnitureInstanceId()));
     }
 
@@ -255,6 +416,110 @@ public class FloorManagementController {
     return savedFloor;
   }
 
+  /**
+   * Applies a set of changes to a floor and stores the result as a new version. Only the added and
+   * moved corners and walls are written, and furniture-management is only called for the
+   * furniture instances that were added or moved.
+   *
+   * @param id the ID of the floor
+   * @param floorPatchDataTransferObject the changes to apply
+   * @return the new version of the floor
+   */
+  @PatchMapping("/floors/{id}")
+  public Floor patchFloor(
+      @PathVariable Long id,
+      @RequestBody FloorPatchDataTransferObject floorPatchDataTransferObject) {
+    Floor existingFloor =
+        floorRepository
+            .findByIdEqualsAndDeletedFalseAndCurrentTrue(id)
+            .orElseThrow(() -> new IllegalArgumentException("Floor not found with id: " + id));
+
+    Set<Long> furnitureIds = new LinkedHashSet<>();
+    if (existingFloor.getFurnitureIds() != null) {
+      furnitureIds.addAll(existingFloor.getFurnitureIds());
+    }
+    List<Long> removedFurnitureInstanceIds =
+        floorPatchDataTransferObject.removedFurnitureInstanceIds() == null
+            ? List.of()
+            : floorPatchDataTransferObject.removedFurnitureInstanceIds();
+    for (Long furnitureInstanceId : removedFurnitureInstanceIds) {
+      if (!furnitureIds.remove(furnitureInstanceId)) {
+        throw new IllegalArgumentException(
+            "Furniture instance " + furnitureInstanceId + " is not on floor " + id);
+      }
+    }
+
+    List<FurnitureUpdateQueryDataTransferObject> movedFurniture =
+        floorPatchDataTransferObject.movedFurniture() == null
+            ? List.of()
+            : floorPatchDataTransferObject.movedFurniture();
+    for (FurnitureUpdateQueryDataTransferObject furnitureDto : movedFurniture) {
+      if (!furnitureIds.contains(furnitureDto.furnitureInstanceId())) {
+        throw new IllegalArgumentException(
+            "Furniture instance " + furnitureDto.furnitureInstanceId() + " is not on floor " + id);
+      }
+    }
+
+    // The furniture changes are checked above and the geometry changes before anything is written
+    Floor newFloor = new Floor(existingFloor);
+    if (floorPatchDataTransferObject.name() != null) {
+      newFloor.setName(floorPatchDataTransferObject.name());
+    }
+    floorGeometryService.applyChanges(newFloor, existingFloor, floorPatchDataTransferObject);
+
+    String url = FURNITURE_SERVICE_URL + "/furniture/instances";
+    updateFurnitureInstances(movedFurniture);
+
+    if (floorPatchDataTransferObject.addedFurniture() != null
+        && !floorPatchDataTransferObject.addedFurniture().isEmpty()) {
+      List<FurnitureInstanceId> addedFurnitureInstanceIds =
+          restClient
+              .post()
+              .uri(url + "/batch")
+              .contentType(APPLICATION_JSON)
+              .body(floorPatchDataTransferObject.addedFurniture())
+              .retrieve()
+              .body(new ParameterizedTypeReference<List<FurnitureInstanceId>>() {});
+      logger.info("Furniture instances created: {}", addedFurnitureInstanceIds);
+      addedFurnitureInstanceIds.stream().map(FurnitureInstanceId::id).forEach(furnitureIds::add);
+    }
+
+    newFloor.setFurnitureIds(List.copyOf(furnitureIds));
+    Floor savedFloor = floorRepository.save(newFloor);
+
+    existingFloor.setCurrent(false);
+    floorRepository.save(existingFloor);
+
+    logger.info(
+        "Patched floor {}: {} furniture instances moved, {} added, {} removed",
+        id,
+        movedFurniture.size(),
+        floorPatchDataTransferObject.addedFurniture() == null
+            ? 0
+            : floorPatchDataTransferObject.addedFurniture().size(),
+        removedFurnitureInstanceIds.size());
+    return savedFloor;
+  }
+
+  /**
+   * Updates furniture instances in furniture-management with a single request.
+   *
+   * @param furniture The furniture instances to update, identified by their instance IDs.
+   */
+  private void updateFurnitureInstances(List<FurnitureUpdateQueryDataTransferObject> furniture) {
+    if (furniture.isEmpty()) {
+      return;
+    }
+    restClient
+        .put()
+        .uri(FURNITURE_SERVICE_URL + "/furniture/instances/batch")
+        .contentType(APPLICATION_JSON)
+        .body(furniture)
+        .retrieve()
+        .toBodilessEntity();
+    logger.info("Furniture instances updated: {}", furniture.size());
+  }
+
   @DeleteMapping("/floors/{id}")
   public void deleteFloor(@PathVariable Long id) {
     logger.info("Deleting floor with id: {}", id);
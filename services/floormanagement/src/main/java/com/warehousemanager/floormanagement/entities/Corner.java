@@ -1,46 +1,45 @@
 package com.warehousemanager.floormanagement.entities;
 
-import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToMany;
-import java.util.HashSet;
-import java.util.Set;
+import jakarta.persistence.SequenceGenerator;
+import org.hibernate.annotations.Immutable;
 
-/** Represents a corner in the warehouse floor. */
+/**
+ * Represents a corner in the warehouse floor. Corners are immutable and shared by all versions of
+ * a floor that contain them.
+ */
 @Entity
+@Immutable
 public class Corner {
   /** Unique identifier for the corner. */
   @Id
-  @GeneratedValue(strategy = GenerationType.SEQUENCE)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "corner_seq")
+  @SequenceGenerator(name = "corner_seq", sequenceName = "corner_seq", allocationSize = 50)
   private Long id;
 
   private float positionX;
   private float positionY;
 
-  /** The floor that this corner belongs to. */
-  @ManyToOne(optional = false)
-  private Floor floor;
-
-  @OneToMany(mappedBy = "startCorner", cascade = CascadeType.ALL, orphanRemoval = true)
-  private Set<Wall> wallsFromCorner = new HashSet<>();
-
-  @OneToMany(mappedBy = "endCorner", cascade = CascadeType.ALL, orphanRemoval = true)
-  private Set<Wall> wallsToCorner = new HashSet<>();
+  /** The unique identifier of the floor that this corner belongs to. */
+  @Column(nullable = false, updatable = false)
+  private Long floorId;
 
   /** Default constructor for JPA. */
   protected Corner() {}
 
   /**
-   * Constructs a Corner with the specified position.
+   * Constructs a Corner with the specified floor and position.
    *
+   * @param floorId the unique identifier of the floor the corner belongs to
    * @param positionX the X position of the corner
    * @param positionY the Y position of the corner
    */
-  public Corner(float positionX, float positionY) {
+  public Corner(Long floorId, float positionX, float positionY) {
+    this.floorId = floorId;
     this.positionX = positionX;
     this.positionY = positionY;
   }
@@ -63,15 +62,6 @@ public class Corner {
     return positionX;
   }
 
-  /**
-   * Sets the X position of the corner.
-   *
-   * @param positionX the new X position of the corner
-   */
-  public void setPositionX(float positionX) {
-    this.positionX = positionX;
-  }
-
   /**
    * Gets the Y position of the corner.
    *
@@ -82,65 +72,11 @@ public class Corner {
   }
 
   /**
-   * Sets the Y position of the corner.
-   *
-   * @param positionY the new Y position of the corner
-   */
-  public void setPositionY(float positionY) {
-    this.positionY = positionY;
-  }
-
-  /**
-   * Gets the floor that this corner belongs to.
-   *
-   * @return the floor of the corner
-   */
-  public Floor getFloor() {
-    return floor;
-  }
-
-  /**
-   * Sets the floor that this corner belongs to.
-   *
-   * @param floor the new floor of the corner
-   */
-  public void setFloor(Floor floor) {
-    this.floor = floor;
-  }
-
-  /**
-   * Gets the walls originating from this corner.
-   *
-   * @return the set of walls originating from this corner
-   */
-  public Set<Wall> getWallsFromCorner() {
-    return wallsFromCorner;
-  }
-
-  /**
-   * Sets the walls originating from this corner.
-   *
-   * @param wallsFromCorner the new set of walls originating from this corner
-   */
-  public void setWallsFromCorner(Set<Wall> wallsFromCorner) {
-    this.wallsFromCorner = wallsFromCorner;
-  }
-
-  /**
-   * Gets the walls ending at this corner.
-   *
-   * @return the set of walls ending at this corner
-   */
-  public Set<Wall> getWallsToCorner() {
-    return wallsToCorner;
-  }
-
-  /**
-   * Sets the walls ending at this corner.
+   * Gets the unique identifier of the floor that this corner belongs to.
    *
-   * @param wallsToCorner the new set of walls ending at this corner
+   * @return the unique identifier of the floor of the corner
    */
-  public void setWallsToCorner(Set<Wall> wallsToCorner) {
-    this.wallsToCorner = wallsToCorner;
+  public Long getFloorId() {
+    return floorId;
   }
 }
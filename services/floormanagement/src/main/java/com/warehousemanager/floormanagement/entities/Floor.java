@@ -41,6 +41,16 @@ public class Floor {
   /** A list of furniture IDs associated with this floor. */
   List<Long> furnitureIds;
 
+  /** The IDs of the corners of this floor version, shared with other versions. */
+  List<Long> cornerIds;
+
+  /** The IDs of the walls of this floor version, shared with other versions. */
+  List<Long> wallIds;
+
+  /** SHA-256 hash of the corners and walls, used to detect unchanged geometry. */
+  @Column(length = 64)
+  private String geometryHash;
+
   /** Default constructor for JPA. */
   protected Floor() {}
 
@@ -76,6 +86,9 @@ public class Floor {
     this.deleted = other.deleted;
     this.name = other.name;
     this.furnitureIds = other.furnitureIds;
+    this.cornerIds = other.cornerIds;
+    this.wallIds = other.wallIds;
+    this.geometryHash = other.geometryHash;
   }
 
   /**
@@ -167,4 +180,58 @@ public class Floor {
   public void setFurnitureIds(List<Long> furnitureIds) {
     this.furnitureIds = furnitureIds;
   }
+
+  /**
+   * Gets the list of corner IDs of this floor version.
+   *
+   * @return the list of corner IDs
+   */
+  public List<Long> getCornerIds() {
+    return cornerIds;
+  }
+
+  /**
+   * Sets the list of corner IDs of this floor version.
+   *
+   * @param cornerIds the new list of corner IDs
+   */
+  public void setCornerIds(List<Long> cornerIds) {
+    this.cornerIds = cornerIds;
+  }
+
+  /**
+   * Gets the list of wall IDs of this floor version.
+   *
+   * @return the list of wall IDs
+   */
+  public List<Long> getWallIds() {
+    return wallIds;
+  }
+
+  /**
+   * Sets the list of wall IDs of this floor version.
+   *
+   * @param wallIds the new list of wall IDs
+   */
+  public void setWallIds(List<Long> wallIds) {
+    this.wallIds = wallIds;
+  }
+
+  /**
+   * Gets the hash of the corners and walls of this floor version.
+   *
+   * @return the geometry hash
+   */
+  public String getGeometryHash() {
+    return geometryHash;
+  }
+
+  /**
+   * Sets the hash of the corners and walls of this floor version.
+   *
+   * @param geometryHash the new geometry hash
+   */
+  public void setGeometryHash(String geometryHash) {
+    this.geometryHash = geometryHash;
+  }
 }
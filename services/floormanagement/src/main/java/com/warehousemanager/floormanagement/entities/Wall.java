@@ -1,41 +1,52 @@
 package com.warehousemanager.floormanagement.entities;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import org.hibernate.annotations.Immutable;
 
-/** Represents a wall in the warehouse floor. */
+/**
+ * Represents a wall in the warehouse floor. Walls are immutable and shared by all versions of a
+ * floor that contain them.
+ */
 @Entity
+@Immutable
 public class Wall {
   /** Unique identifier for the wall. */
   @Id
-  @GeneratedValue(strategy = GenerationType.SEQUENCE)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wall_seq")
+  @SequenceGenerator(name = "wall_seq", sequenceName = "wall_seq", allocationSize = 50)
   private Long id;
 
-  /** The floor that this wall belongs to. */
-  @ManyToOne(optional = false)
-  private Floor floor;
+  /** The unique identifier of the floor that this wall belongs to. */
+  @Column(nullable = false, updatable = false)
+  private Long floorId;
 
   /** The start corner of the wall. */
-  @ManyToOne(optional = false)
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
   private Corner startCorner;
 
   /** The end corner of the wall. */
-  @ManyToOne(optional = false)
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
   private Corner endCorner;
 
   /** Default constructor for JPA. */
   protected Wall() {}
 
   /**
-   * Constructs a Wall with the specified start and end corners.
+   * Constructs a Wall with the specified floor and start and end corners.
    *
+   * @param floorId the unique identifier of the floor the wall belongs to
    * @param startCorner the starting corner of the wall
    * @param endCorner the ending corner of the wall
    */
-  public Wall(Corner startCorner, Corner endCorner) {
+  public Wall(Long floorId, Corner startCorner, Corner endCorner) {
+    this.floorId = floorId;
     this.startCorner = startCorner;
     this.endCorner = endCorner;
   }
@@ -50,21 +61,12 @@ public class Wall {
   }
 
   /**
-   * Gets the floor that this wall belongs to.
+   * Gets the unique identifier of the floor that this wall belongs to.
    *
-   * @return the floor of the wall
+   * @return the unique identifier of the floor of the wall
    */
-  public Floor getFloor() {
-    return floor;
-  }
-
-  /**
-   * Sets the floor that this wall belongs to.
-   *
-   * @param floor the floor to set
-   */
-  public void setFloor(Floor floor) {
-    this.floor = floor;
+  public Long getFloorId() {
+    return floorId;
   }
 
   /**
@@ -76,15 +78,6 @@ public class Wall {
     return startCorner;
   }
 
-  /**
-   * Sets the starting corner of the wall.
-   *
-   * @param startCorner the starting corner to set
-   */
-  public void setStartCorner(Corner startCorner) {
-    this.startCorner = startCorner;
-  }
-
   /**
    * Gets the ending corner of the wall.
    *
@@ -93,13 +86,4 @@ public class Wall {
   public Corner getEndCorner() {
     return endCorner;
   }
-
-  /**
-   * Sets the ending corner of the wall.
-   *
-   * @param endCorner the ending corner to set
-   */
-  public void setEndCorner(Corner endCorner) {
-    this.endCorner = endCorner;
-  }
 }
@@ -1,10 +1,16 @@
 package com.warehousemanager.floormanagement.repositories;
 
 import com.warehousemanager.floormanagement.entities.Floor;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository interface for managing Floor entities. This interface extends CrudRepository to
@@ -20,11 +26,28 @@ public interface FloorRepository extends CrudRepository<Floor, Long> {
   Long getNextId();
 
   /**
-   * Finds all floors that are not deleted and are marked as current.
+   * Streams all floors that are not deleted and are marked as current, ordered by ID. The rows are
+   * fetched from a database cursor in chunks, so the stream must be consumed within a transaction
+   * and closed afterwards.
    *
-   * @return an iterable collection of floors that are not deleted and current
+   * @return a stream of floors that are not deleted and current
    */
-  List<Floor> findByDeletedFalseAndCurrentTrue();
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<Floor> streamByDeletedFalseAndCurrentTrueOrderByIdAsc();
+
+  /**
+   * Finds a page of floors that are not deleted and are marked as current, starting after the
+   * given ID.
+   *
+   * @param afterId the ID after which the page starts
+   * @param limit the maximum number of floors to return
+   * @return the floors with an ID greater than the given one, ordered by ID
+   */
+  List<Floor> findByIdGreaterThanAndDeletedFalseAndCurrentTrueOrderByIdAsc(
+      Long afterId, Limit limit);
 
   /**
    * Finds all floors with the specified IDs that are not deleted and are marked as current.
@@ -50,4 +73,28 @@ public interface FloorRepository extends CrudRepository<Floor, Long> {
    * @return an optional containing the floor if found, otherwise empty
    */
   Optional<Floor> findByIdEqualsAndDeletedFalseAndCurrentTrue(Long id);
+
+  /**
+   * Finds all versions of a floor, both those still in the floor table and those moved to the floor
+   * history by the archiver.
+   *
+   * @param id the ID of the floor
+   * @return all versions of the floor, newest first
+   */
+  @Query(
+      value =
+          """
+          SELECT id, version, current, deleted, furniture_ids, corner_ids, wall_ids, geometry_hash,
+                 name
+          FROM floor
+          WHERE id = :id
+          UNION ALL
+          SELECT id, version, current, deleted, furniture_ids, corner_ids, wall_ids, geometry_hash,
+                 name
+          FROM floor_history
+          WHERE id = :id
+          ORDER BY version DESC
+          """,
+      nativeQuery = true)
+  List<Floor> findAllVersionsById(@Param("id") Long id);
 }
@@ -0,0 +1,173 @@
+package com.warehousemanager.floormanagement.services;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves floor versions that are no longer current out of the floor table into the floor history,
+ * which is partitioned by month. The corners and walls of an archived version stay where they
+ * are, since they are shared with later versions. Versions are only archived once they are older
+ * than the retention window.
+ */
+@Component
+public class FloorArchiver {
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration retention;
+  private final int batchSize;
+  private static final Logger logger = LoggerFactory.getLogger(FloorArchiver.class);
+  private static final DateTimeFormatter PARTITION_SUFFIX =
+      DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+  private static final String CLAIM_BATCH =
+      """
+      SELECT ctid::text, version
+      FROM floor
+      WHERE NOT current AND version < ?
+      ORDER BY version
+      LIMIT ?
+      FOR UPDATE SKIP LOCKED
+      """;
+  private static final String LOCK_PARTITIONS =
+      "SELECT pg_advisory_xact_lock(hashtext('floor_history'))";
+  private static final String MOVE_BATCH =
+      """
+      WITH moved AS (
+        DELETE FROM floor
+        WHERE ctid = ANY(?::text[]::tid[])
+        RETURNING id, version, current, deleted, furniture_ids, corner_ids, wall_ids,
+                  geometry_hash, name
+      )
+      INSERT INTO floor_history (id, version, current, deleted, furniture_ids, corner_ids,
+                                 wall_ids, geometry_hash, name)
+      SELECT * FROM moved
+      """;
+
+  /**
+   * Constructs a FloorArchiver with the specified settings.
+   *
+   * @param jdbcTemplate the JDBC template for executing the archival statements
+   * @param transactionManager the transaction manager for the transactions batches are moved in
+   * @param retention how long a version stays in the floor table after it was created
+   * @param batchSize the maximum number of versions moved by a single statement
+   */
+  public FloorArchiver(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${floors.archive.retention:30d}") Duration retention,
+      @Value("${floors.archive.batch-size:1000}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.retention = retention;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Archives all versions that are not current and older than the retention window. The versions
+   * are moved in batches, each in its own transaction: the rows are claimed first, the partitions
+   * for the months they fall into are created, and then the claimed rows are moved into the
+   * history with a single statement, so a version is never in both tables or neither. Rows
+   * claimed by another instance are skipped.
+   *
+   * @return the number of archived versions
+   */
+  @Scheduled(
+      initialDelayString = "${floors.archive.interval:PT1H}",
+      fixedDelayString = "${floors.archive.interval:PT1H}")
+  public int archive() {
+    long start = System.nanoTime();
+    Timestamp cutoff = Timestamp.from(Instant.now().minus(retention));
+    Set<YearMonth> months = new HashSet<>();
+    int archived = 0;
+    int moved;
+    do {
+      moved = transactionTemplate.execute(status -> moveBatch(cutoff, months));
+      archived += moved;
+    } while (moved == batchSize);
+
+    logger.info(
+        "Archived {} floor versions older than {} into {} monthly partitions in {} ms",
+        archived,
+        cutoff.toInstant(),
+        months.size(),
+        (System.nanoTime() - start) / 1_000_000);
+    return archived;
+  }
+
+  /**
+   * Claims a batch of versions to archive, creates the partitions they need and moves them. Has
+   * to run in a transaction, which keeps the claimed rows locked until they are moved.
+   *
+   * @param cutoff the time before which versions are archived
+   * @param months the months versions were archived into so far, extended by this batch
+   * @return the number of moved versions
+   */
+  private int moveBatch(Timestamp cutoff, Set<YearMonth> months) {
+    List<String> rowIds = new ArrayList<>();
+    List<Instant> versions = new ArrayList<>();
+    jdbcTemplate.query(
+        CLAIM_BATCH,
+        resultSet -> {
+          rowIds.add(resultSet.getString(1));
+          versions.add(resultSet.getTimestamp(2).toInstant());
+        },
+        cutoff,
+        batchSize);
+    if (rowIds.isEmpty()) {
+      return 0;
+    }
+
+    // The versions are ordered, so the batch spans the months from the first to the last one
+    jdbcTemplate.execute(LOCK_PARTITIONS);
+    YearMonth last = YearMonth.from(versions.get(versions.size() - 1).atZone(ZoneOffset.UTC));
+    for (YearMonth month = YearMonth.from(versions.get(0).atZone(ZoneOffset.UTC));
+        !month.isAfter(last);
+        month = month.plusMonths(1)) {
+      createPartition(month);
+      months.add(month);
+    }
+
+    return jdbcTemplate.update(
+        MOVE_BATCH,
+        preparedStatement -> {
+          Connection connection = preparedStatement.getConnection();
+          preparedStatement.setArray(1, connection.createArrayOf("text", rowIds.toArray()));
+        });
+  }
+
+  /**
+   * Creates the history partition for a month if it does not exist yet. Must be called while
+   * holding the partition lock, so that instances do not create the same partition concurrently.
+   *
+   * @param month the month in UTC
+   */
+  private void createPartition(YearMonth month) {
+    Instant from = month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    Instant to = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    jdbcTemplate.execute(
+        "CREATE TABLE IF NOT EXISTS floor_history_"
+            + PARTITION_SUFFIX.format(month)
+            + " PARTITION OF floor_history FOR VALUES FROM ('"
+            + from
+            + "') TO ('"
+            + to
+            + "')");
+  }
+}
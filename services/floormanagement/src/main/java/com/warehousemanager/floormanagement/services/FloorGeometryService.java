@@ -0,0 +1,431 @@
+package com.warehousemanager.floormanagement.services;
+
+import com.warehousemanager.floormanagement.CornerDataTransferObject;
+import com.warehousemanager.floormanagement.FloorPatchDataTransferObject;
+import com.warehousemanager.floormanagement.WallDataTransferObject;
+import com.warehousemanager.floormanagement.entities.Corner;
+import com.warehousemanager.floormanagement.entities.Floor;
+import com.warehousemanager.floormanagement.entities.Wall;
+import com.warehousemanager.floormanagement.repositories.CornerRepository;
+import com.warehousemanager.floormanagement.repositories.WallRepository;
+import jakarta.persistence.EntityManager;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for persisting the corners and walls of floors. Corners and walls are immutable and
+ * shared between floor versions: a floor version references them by ID, and a new version only
+ * writes the corners and walls that are not already part of the previous version.
+ */
+@Service
+public class FloorGeometryService {
+  private final CornerRepository cornerRepository;
+  private final WallRepository wallRepository;
+  private final EntityManager entityManager;
+  private static final Logger logger = LoggerFactory.getLogger(FloorGeometryService.class);
+
+  /**
+   * Constructor for FloorGeometryService.
+   *
+   * @param cornerRepository Repository for managing Corner entities.
+   * @param wallRepository Repository for managing Wall entities.
+   * @param entityManager Entity manager for flushing the batched inserts.
+   */
+  public FloorGeometryService(
+      CornerRepository cornerRepository,
+      WallRepository wallRepository,
+      EntityManager entityManager) {
+    this.cornerRepository = cornerRepository;
+    this.wallRepository = wallRepository;
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * Retrieves the corners of a floor version in the order they were saved.
+   *
+   * @param floor The floor version whose corners are retrieved.
+   * @return The corners of the floor version.
+   */
+  public List<Corner> getCorners(Floor floor) {
+    List<Long> ids = orEmpty(floor.getCornerIds());
+    return inOrder(ids, cornerRepository.findAllById(ids), Corner::getId);
+  }
+
+  /**
+   * Retrieves the walls of a floor version in the order they were saved.
+   *
+   * @param floor The floor version whose walls are retrieved.
+   * @return The walls of the floor version.
+   */
+  public List<Wall> getWalls(Floor floor) {
+    List<Long> ids = orEmpty(floor.getWallIds());
+    return inOrder(ids, wallRepository.findAllById(ids), Wall::getId);
+  }
+
+  /**
+   * Saves the corners and walls of a floor version. If the geometry hash matches the previous
+   * version, the previous corners and walls are referenced as they are. Otherwise corners at the
+   * same position and walls between the same corners are taken over from the previous version, and
+   * only the remaining ones are inserted in JDBC batches. The IDs of the corners and walls and the
+   * geometry hash are set on the floor, which has to be saved by the caller.
+   *
+   * @param floor The floor version the corners and walls belong to.
+   * @param cornerDataTransferObjects The corners, identified by client-side IDs.
+   * @param wallDataTransferObjects The walls, referencing corners by their client-side IDs.
+   * @param previous The previous version of the floor, or null if the floor is new.
+   * @throws IllegalArgumentException If a wall references an unknown corner.
+   */
+  @Transactional
+  public void saveGeometry(
+      Floor floor,
+      List<CornerDataTransferObject> cornerDataTransferObjects,
+      List<WallDataTransferObject> wallDataTransferObjects,
+      Floor previous) {
+    long start = System.nanoTime();
+    String geometryHash = hash(cornerDataTransferObjects, wallDataTransferObjects);
+    if (previous != null
+        && geometryHash.equals(previous.getGeometryHash())
+        && previous.getCornerIds() != null
+        && previous.getWallIds() != null) {
+      floor.setCornerIds(previous.getCornerIds());
+      floor.setWallIds(previous.getWallIds());
+      floor.setGeometryHash(geometryHash);
+      logger.info("Geometry of floor {} is unchanged, reusing it", floor.getId());
+      return;
+    }
+
+    Map<Long, Deque<Corner>> previousCornersByPosition = new HashMap<>();
+    Map<List<Long>, Deque<Wall>> previousWallsByCorners = new HashMap<>();
+    if (previous != null) {
+      for (Corner corner : getCorners(previous)) {
+        previousCornersByPosition
+            .computeIfAbsent(
+                positionKey(corner.getPositionX(), corner.getPositionY()),
+                key -> new ArrayDeque<>())
+            .add(corner);
+      }
+      for (Wall wall : getWalls(previous)) {
+        previousWallsByCorners
+            .computeIfAbsent(
+                List.of(wall.getStartCorner().getId(), wall.getEndCorner().getId()),
+                key -> new ArrayDeque<>())
+            .add(wall);
+      }
+    }
+
+    Map<Long, Corner> corners = new LinkedHashMap<>();
+    List<Corner> newCorners = new ArrayList<>();
+    for (CornerDataTransferObject cornerDataTransferObject : cornerDataTransferObjects) {
+      Deque<Corner> candidates =
+          previousCornersByPosition.get(
+              positionKey(cornerDataTransferObject.positionX, cornerDataTransferObject.positionY));
+      Corner corner = candidates == null ? null : candidates.poll();
+      if (corner == null) {
+        corner =
+            new Corner(
+                floor.getId(),
+                cornerDataTransferObject.positionX,
+                cornerDataTransferObject.positionY);
+        newCorners.add(corner);
+      }
+      corners.put(cornerDataTransferObject.id, corner);
+    }
+    cornerRepository.saveAll(newCorners);
+
+    List<Wall> walls = new ArrayList<>();
+    List<Wall> newWalls = new ArrayList<>();
+    for (WallDataTransferObject wallDataTransferObject : wallDataTransferObjects) {
+      Corner startCorner = corners.get(wallDataTransferObject.startCornerId);
+      Corner endCorner = corners.get(wallDataTransferObject.endCornerId);
+
+      if (startCorner == null || endCorner == null) {
+        throw new IllegalArgumentException("Invalid corner IDs in wall data transfer object.");
+      }
+
+      Deque<Wall> candidates =
+          previousWallsByCorners.get(List.of(startCorner.getId(), endCorner.getId()));
+      Wall wall = candidates == null ? null : candidates.poll();
+      if (wall == null) {
+        wall = new Wall(floor.getId(), startCorner, endCorner);
+        newWalls.add(wall);
+      }
+      walls.add(wall);
+    }
+    wallRepository.saveAll(newWalls);
+    entityManager.flush();
+
+    floor.setCornerIds(corners.values().stream().map(Corner::getId).toList());
+    floor.setWallIds(walls.stream().map(Wall::getId).toList());
+    floor.setGeometryHash(geometryHash);
+
+    logSaved(floor, start, newCorners.size(), corners.size(), newWalls.size(), walls.size());
+  }
+
+  /**
+   * Applies changes to the corners and walls of the previous floor version and sets the result on
+   * the new version, which has to be saved by the caller. Corners and walls are immutable, so only
+   * the added and moved corners and the walls attached to them are inserted; everything else keeps
+   * being shared with the previous version. Removing a corner removes its walls. All changes are
+   * checked before anything is written.
+   *
+   * @param floor The new floor version.
+   * @param previous The previous floor version the changes are relative to.
+   * @param changes The changes to apply.
+   * @throws IllegalArgumentException If a change references a corner or wall that does not exist,
+   *     or moves the same corner more than once.
+   */
+  @Transactional
+  public void applyChanges(Floor floor, Floor previous, FloorPatchDataTransferObject changes) {
+    if (!changes.changesGeometry()) {
+      return;
+    }
+    long start = System.nanoTime();
+    Map<Long, Corner> corners = new LinkedHashMap<>();
+    for (Corner corner : getCorners(previous)) {
+      corners.put(corner.getId(), corner);
+    }
+
+    Set<Long> removedCornerIds = new HashSet<>();
+    for (Long cornerId : orEmpty(changes.removedCornerIds())) {
+      if (corners.remove(cornerId) == null) {
+        throw new IllegalArgumentException("Corner not found with id: " + cornerId);
+      }
+      removedCornerIds.add(cornerId);
+    }
+
+    List<Corner> newCorners = new ArrayList<>();
+    Set<Long> movedCornerIds = new HashSet<>();
+    for (CornerDataTransferObject cornerDataTransferObject : orEmpty(changes.movedCorners())) {
+      if (!corners.containsKey(cornerDataTransferObject.id)) {
+        throw new IllegalArgumentException(
+            "Corner not found with id: " + cornerDataTransferObject.id);
+      }
+      if (!movedCornerIds.add(cornerDataTransferObject.id)) {
+        throw new IllegalArgumentException(
+            "Corner moved more than once: " + cornerDataTransferObject.id);
+      }
+      Corner corner =
+          new Corner(
+              floor.getId(),
+              cornerDataTransferObject.positionX,
+              cornerDataTransferObject.positionY);
+      corners.put(cornerDataTransferObject.id, corner);
+      newCorners.add(corner);
+    }
+
+    Map<Long, Corner> addedCorners = new LinkedHashMap<>();
+    for (CornerDataTransferObject cornerDataTransferObject : orEmpty(changes.addedCorners())) {
+      if (corners.containsKey(cornerDataTransferObject.id)
+          || removedCornerIds.contains(cornerDataTransferObject.id)
+          || addedCorners.containsKey(cornerDataTransferObject.id)) {
+        throw new IllegalArgumentException(
+            "Added corner id clashes with an existing corner: " + cornerDataTransferObject.id);
+      }
+      Corner corner =
+          new Corner(
+              floor.getId(),
+              cornerDataTransferObject.positionX,
+              cornerDataTransferObject.positionY);
+      addedCorners.put(cornerDataTransferObject.id, corner);
+      newCorners.add(corner);
+    }
+
+    Set<List<Long>> removedWalls = new HashSet<>();
+    for (WallDataTransferObject wallDataTransferObject : orEmpty(changes.removedWalls())) {
+      removedWalls.add(
+          List.of(wallDataTransferObject.startCornerId, wallDataTransferObject.endCornerId));
+    }
+
+    List<Wall> walls = new ArrayList<>();
+    List<Wall> newWalls = new ArrayList<>();
+    for (Wall wall : getWalls(previous)) {
+      Long startCornerId = wall.getStartCorner().getId();
+      Long endCornerId = wall.getEndCorner().getId();
+      if (removedWalls.remove(List.of(startCornerId, endCornerId))
+          || removedCornerIds.contains(startCornerId)
+          || removedCornerIds.contains(endCornerId)) {
+        continue;
+      }
+      Corner startCorner = corners.get(startCornerId);
+      Corner endCorner = corners.get(endCornerId);
+      if (!movedCornerIds.contains(startCornerId) && !movedCornerIds.contains(endCornerId)) {
+        walls.add(wall);
+      } else {
+        Wall movedWall = new Wall(floor.getId(), startCorner, endCorner);
+        walls.add(movedWall);
+        newWalls.add(movedWall);
+      }
+    }
+    if (!removedWalls.isEmpty()) {
+      throw new IllegalArgumentException("Walls not found between corners: " + removedWalls);
+    }
+
+    for (WallDataTransferObject wallDataTransferObject : orEmpty(changes.addedWalls())) {
+      Corner startCorner =
+          addedCorners.getOrDefault(
+              wallDataTransferObject.startCornerId,
+              corners.get(wallDataTransferObject.startCornerId));
+      Corner endCorner =
+          addedCorners.getOrDefault(
+              wallDataTransferObject.endCornerId, corners.get(wallDataTransferObject.endCornerId));
+
+      if (startCorner == null || endCorner == null) {
+        throw new IllegalArgumentException("Invalid corner IDs in wall data transfer object.");
+      }
+
+      Wall wall = new Wall(floor.getId(), startCorner, endCorner);
+      walls.add(wall);
+      newWalls.add(wall);
+    }
+
+    // All changes are valid, write the new corners and walls
+    cornerRepository.saveAll(newCorners);
+    wallRepository.saveAll(newWalls);
+    entityManager.flush();
+
+    List<Corner> allCorners = new ArrayList<>(corners.values());
+    allCorners.addAll(addedCorners.values());
+    floor.setCornerIds(allCorners.stream().map(Corner::getId).toList());
+    floor.setWallIds(walls.stream().map(Wall::getId).toList());
+    floor.setGeometryHash(
+        hash(
+            allCorners.stream()
+                .map(
+                    corner ->
+                        new CornerDataTransferObject(
+                            corner.getId(), corner.getPositionX(), corner.getPositionY()))
+                .toList(),
+            walls.stream()
+                .map(
+                    wall ->
+                        new WallDataTransferObject(
+                            wall.getStartCorner().getId(), wall.getEndCorner().getId()))
+                .toList()));
+
+    logSaved(floor, start, newCorners.size(), allCorners.size(), newWalls.size(), walls.size());
+  }
+
+  /**
+   * Logs how many corners and walls of a floor version were written and how fast.
+   *
+   * @param floor The floor version.
+   * @param start The {@link System#nanoTime()} at which saving started.
+   * @param writtenCorners The number of inserted corners.
+   * @param corners The total number of corners of the floor version.
+   * @param writtenWalls The number of inserted walls.
+   * @param walls The total number of walls of the floor version.
+   */
+  private static void logSaved(
+      Floor floor, long start, int writtenCorners, int corners, int writtenWalls, int walls) {
+    double seconds = Math.max(System.nanoTime() - start, 1) / 1_000_000_000.0;
+    logger.info(
+        "Saved geometry of floor {} in {} ms: {} of {} corners and {} of {} walls written"
+            + " ({} rows/s), the rest reused",
+        floor.getId(),
+        Math.round(seconds * 1000),
+        writtenCorners,
+        corners,
+        writtenWalls,
+        walls,
+        Math.round((writtenCorners + writtenWalls) / seconds));
+  }
+
+  /**
+   * Computes a SHA-256 hash of the geometry. Corners are hashed by position in the given order and
+   * walls by the positions of their corners in that order, so the hash does not depend on the
+   * client-side IDs.
+   *
+   * @param cornerDataTransferObjects The corners of the geometry.
+   * @param wallDataTransferObjects The walls of the geometry.
+   * @return The hexadecimal geometry hash.
+   */
+  private static String hash(
+      List<CornerDataTransferObject> cornerDataTransferObjects,
+      List<WallDataTransferObject> wallDataTransferObjects) {
+    Map<Long, Integer> cornerIndexes = new HashMap<>();
+    ByteBuffer buffer =
+        ByteBuffer.allocate(
+            8 + cornerDataTransferObjects.size() * 8 + wallDataTransferObjects.size() * 8);
+    buffer.putInt(cornerDataTransferObjects.size());
+    for (CornerDataTransferObject cornerDataTransferObject : cornerDataTransferObjects) {
+      cornerIndexes.putIfAbsent(cornerDataTransferObject.id, cornerIndexes.size());
+      buffer.putFloat(cornerDataTransferObject.positionX);
+      buffer.putFloat(cornerDataTransferObject.positionY);
+    }
+    buffer.putInt(wallDataTransferObjects.size());
+    for (WallDataTransferObject wallDataTransferObject : wallDataTransferObjects) {
+      buffer.putInt(cornerIndexes.getOrDefault(wallDataTransferObject.startCornerId, -1));
+      buffer.putInt(cornerIndexes.getOrDefault(wallDataTransferObject.endCornerId, -1));
+    }
+    try {
+      return HexFormat.of()
+          .formatHex(MessageDigest.getInstance("SHA-256").digest(buffer.array()));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Combines the exact bits of a position into a single lookup key.
+   *
+   * @param positionX The X position.
+   * @param positionY The Y position.
+   * @return The lookup key of the position.
+   */
+  private static long positionKey(float positionX, float positionY) {
+    return ((long) Float.floatToIntBits(positionX) << 32)
+        | (Float.floatToIntBits(positionY) & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Returns the given list, or an empty list if it is null. ID lists are null for floors saved
+   * before they were recorded, change lists are null if nothing of that kind changed.
+   *
+   * @param list The list, possibly null.
+   * @return The list.
+   */
+  private static <T> List<T> orEmpty(List<T> list) {
+    return list == null ? List.of() : list;
+  }
+
+  /**
+   * Orders entities loaded by ID like the list of IDs referencing them. IDs without an entity are
+   * skipped.
+   *
+   * @param ids The IDs in the desired order.
+   * @param entities The loaded entities.
+   * @param idGetter The function returning the ID of an entity.
+   * @return The entities in the order of the IDs.
+   */
+  private static <T> List<T> inOrder(
+      List<Long> ids, Iterable<T> entities, Function<T, Long> idGetter) {
+    Map<Long, T> entitiesById = new HashMap<>();
+    for (T entity : entities) {
+      entitiesById.put(idGetter.apply(entity), entity);
+    }
+    List<T> ordered = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      T entity = entitiesById.get(id);
+      if (entity != null) {
+        ordered.add(entity);
+      }
+    }
+    return ordered;
+  }
+}
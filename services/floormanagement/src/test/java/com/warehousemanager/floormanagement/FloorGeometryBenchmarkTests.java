@@ -0,0 +1,84 @@
+package com.warehousemanager.floormanagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.warehousemanager.floormanagement.entities.Floor;
+import com.warehousemanager.floormanagement.services.FloorGeometryService;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Measures how fast the geometry of a large floor plan is written with the batching configured in
+ * application.properties. The schema is created from init-db.sql exactly as in docker-compose.
+ */
+@SpringBootTest(properties = {"eureka.client.enabled=false", "spring.jpa.show-sql=false"})
+@Testcontainers(disabledWithoutDocker = true)
+class FloorGeometryBenchmarkTests {
+  @Container
+  private static final PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:17")
+          .withUsername("postgres")
+          .withCopyFileToContainer(
+              MountableFile.forHostPath("init-db.sql"), "/docker-entrypoint-initdb.d/init-db.sql");
+
+  private static final int CORNERS = 2000;
+  private static final int WARM_UP_RUNS = 2;
+  private static final Logger logger = LoggerFactory.getLogger(FloorGeometryBenchmarkTests.class);
+
+  @Autowired private FloorGeometryService floorGeometryService;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+  }
+
+  @Test
+  void savesLargeFloorPlan() {
+    List<CornerDataTransferObject> corners = new ArrayList<>();
+    List<WallDataTransferObject> walls = new ArrayList<>();
+    for (int i = 0; i < CORNERS; i++) {
+      corners.add(new CornerDataTransferObject((long) i, i % 50 * 2.5f, i / 50 * 2.5f));
+      walls.add(new WallDataTransferObject((long) i, (long) ((i + 1) % CORNERS)));
+    }
+    for (long floorId = 1; floorId <= WARM_UP_RUNS; floorId++) {
+      floorGeometryService.saveGeometry(new Floor(floorId, "Warm-up"), corners, walls, null);
+    }
+
+    Floor floor = new Floor(WARM_UP_RUNS + 1L, "Benchmark");
+    long start = System.nanoTime();
+    floorGeometryService.saveGeometry(floor, corners, walls, null);
+    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+    logger.info(
+        "Saved {} corners and {} walls in {} ms ({} rows/s)",
+        CORNERS,
+        CORNERS,
+        Math.round(seconds * 1000),
+        Math.round(2 * CORNERS / seconds));
+
+    assertEquals(CORNERS, floor.getCornerIds().size());
+    assertEquals(CORNERS, floor.getWallIds().size());
+    assertEquals(
+        CORNERS,
+        jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM corner WHERE floor_id = ?", Integer.class, floor.getId()));
+    assertEquals(
+        CORNERS,
+        jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM wall WHERE floor_id = ?", Integer.class, floor.getId()));
+  }
+}
@@ -77,6 +77,16 @@ TABLESPACE pg_default;
 ALTER TABLE IF EXISTS public.furniture
     OWNER to postgres;
 
+-- Index: furniture_current_id_idx
+
+-- DROP INDEX IF EXISTS public.furniture_current_id_idx;
+
+CREATE INDEX IF NOT EXISTS furniture_current_id_idx
+    ON public.furniture USING btree
+    (id ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE current AND NOT deleted;
+
 -- Table: public.furniture_instance
 
 -- DROP TABLE IF EXISTS public.furniture_instance;
@@ -173,7 +183,8 @@ ALTER TABLE IF EXISTS public.zone_instance
 CREATE TABLE IF NOT EXISTS public.zone_instance_items
 (
     zone_instance_id bigint NOT NULL,
-    item_id bigint,
+    item_id bigint NOT NULL,
+    CONSTRAINT zone_instance_items_pkey PRIMARY KEY (zone_instance_id, item_id),
     CONSTRAINT fkn9dif2dcxoqhhavcujla6lqqe FOREIGN KEY (zone_instance_id)
         REFERENCES public.zone_instance (id) MATCH SIMPLE
         ON UPDATE NO ACTION
@@ -184,3 +195,85 @@ TABLESPACE pg_default;
 
 ALTER TABLE IF EXISTS public.zone_instance_items
     OWNER to postgres;
+
+-- Index: zone_instance_items_item_id_idx
+
+-- DROP INDEX IF EXISTS public.zone_instance_items_item_id_idx;
+
+CREATE INDEX IF NOT EXISTS zone_instance_items_item_id_idx
+    ON public.zone_instance_items USING btree
+    (item_id ASC NULLS LAST)
+    TABLESPACE pg_default;
+
+-- Index: furniture_instance_furniture_idx
+
+-- DROP INDEX IF EXISTS public.furniture_instance_furniture_idx;
+
+CREATE INDEX IF NOT EXISTS furniture_instance_furniture_idx
+    ON public.furniture_instance USING btree
+    (furniture_id ASC NULLS LAST, furniture_version ASC NULLS LAST)
+    TABLESPACE pg_default;
+
+-- Index: zone_furniture_idx
+
+-- DROP INDEX IF EXISTS public.zone_furniture_idx;
+
+CREATE INDEX IF NOT EXISTS zone_furniture_idx
+    ON public.zone USING btree
+    (furniture_id ASC NULLS LAST, furniture_version ASC NULLS LAST)
+    TABLESPACE pg_default;
+
+-- Table: public.furniture_history
+
+-- DROP TABLE IF EXISTS public.furniture_history;
+
+CREATE TABLE IF NOT EXISTS public.furniture_history
+(
+    id bigint NOT NULL,
+    version timestamp(6) with time zone NOT NULL,
+    current boolean NOT NULL,
+    deleted boolean NOT NULL,
+    name character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    shape_ids bigint[],
+    top_down_view_id bigint NOT NULL,
+    CONSTRAINT furniture_history_pkey PRIMARY KEY (id, version)
+) PARTITION BY RANGE (version);
+
+ALTER TABLE IF EXISTS public.furniture_history
+    OWNER to postgres;
+
+-- Table: public.zone_history
+
+-- DROP TABLE IF EXISTS public.zone_history;
+
+CREATE TABLE IF NOT EXISTS public.zone_history
+(
+    id bigint NOT NULL,
+    name character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    shape_id bigint NOT NULL,
+    furniture_id bigint,
+    furniture_version timestamp(6) with time zone,
+    CONSTRAINT zone_history_pkey PRIMARY KEY (id)
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE IF EXISTS public.zone_history
+    OWNER to postgres;
+
+-- Table: public.zone_location_change
+
+-- DROP TABLE IF EXISTS public.zone_location_change;
+
+CREATE TABLE IF NOT EXISTS public.zone_location_change
+(
+    id bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    zone_instance_id bigint NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT zone_location_change_pkey PRIMARY KEY (id)
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE IF EXISTS public.zone_location_change
+    OWNER to postgres;
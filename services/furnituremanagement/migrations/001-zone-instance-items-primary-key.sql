@@ -0,0 +1,21 @@
+-- Upgrades databases created from an init-db.sql without a primary key on zone_instance_items.
+
+DELETE FROM public.zone_instance_items
+    WHERE item_id IS NULL;
+
+DELETE FROM public.zone_instance_items duplicate
+    USING public.zone_instance_items original
+    WHERE duplicate.ctid > original.ctid
+        AND duplicate.zone_instance_id = original.zone_instance_id
+        AND duplicate.item_id = original.item_id;
+
+ALTER TABLE IF EXISTS public.zone_instance_items
+    ALTER COLUMN item_id SET NOT NULL;
+
+ALTER TABLE IF EXISTS public.zone_instance_items
+    ADD CONSTRAINT zone_instance_items_pkey PRIMARY KEY (zone_instance_id, item_id);
+
+CREATE INDEX IF NOT EXISTS zone_instance_items_item_id_idx
+    ON public.zone_instance_items USING btree
+    (item_id ASC NULLS LAST)
+    TABLESPACE pg_default;
@@ -0,0 +1,51 @@
+-- Adds the history tables that non-current furniture versions and their zones are archived
+-- into. The monthly partitions of the furniture history are created by the archiver on demand.
+-- The indexes let the archiver and the foreign key checks find the instances and zones of a
+-- furniture version without scanning their tables. CONCURRENTLY keeps the tables writable
+-- meanwhile, so this script must not run inside a transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS furniture_instance_furniture_idx
+    ON public.furniture_instance USING btree
+    (furniture_id ASC NULLS LAST, furniture_version ASC NULLS LAST);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS zone_furniture_idx
+    ON public.zone USING btree
+    (furniture_id ASC NULLS LAST, furniture_version ASC NULLS LAST);
+
+-- Table: public.furniture_history
+
+-- DROP TABLE IF EXISTS public.furniture_history;
+
+CREATE TABLE IF NOT EXISTS public.furniture_history
+(
+    id bigint NOT NULL,
+    version timestamp(6) with time zone NOT NULL,
+    current boolean NOT NULL,
+    deleted boolean NOT NULL,
+    name character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    shape_ids bigint[],
+    top_down_view_id bigint NOT NULL,
+    CONSTRAINT furniture_history_pkey PRIMARY KEY (id, version)
+) PARTITION BY RANGE (version);
+
+ALTER TABLE IF EXISTS public.furniture_history
+    OWNER to postgres;
+
+-- Table: public.zone_history
+
+-- DROP TABLE IF EXISTS public.zone_history;
+
+CREATE TABLE IF NOT EXISTS public.zone_history
+(
+    id bigint NOT NULL,
+    name character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    shape_id bigint NOT NULL,
+    furniture_id bigint,
+    furniture_version timestamp(6) with time zone,
+    CONSTRAINT zone_history_pkey PRIMARY KEY (id)
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE IF EXISTS public.zone_history
+    OWNER to postgres;
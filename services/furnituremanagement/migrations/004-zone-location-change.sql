@@ -0,0 +1,25 @@
+-- Adds the outbox that moved zone instances are recorded in until their locations are reported to
+-- the item service. Every existing zone instance is recorded once, so that the locations the item
+-- service migrated without a furniture instance and position are completed. Run it after the
+-- item service migration that adds the item location index.
+
+-- Table: public.zone_location_change
+
+-- DROP TABLE IF EXISTS public.zone_location_change;
+
+CREATE TABLE IF NOT EXISTS public.zone_location_change
+(
+    id bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    zone_instance_id bigint NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT zone_location_change_pkey PRIMARY KEY (id)
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE IF EXISTS public.zone_location_change
+    OWNER to postgres;
+
+INSERT INTO public.zone_location_change (zone_instance_id, created_at)
+SELECT id, now()
+FROM public.zone_instance;
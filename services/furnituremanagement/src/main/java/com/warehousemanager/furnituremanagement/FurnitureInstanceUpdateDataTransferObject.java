@@ -0,0 +1,15 @@
+package com.warehousemanager.furnituremanagement;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for updating a furniture instance as part of a batch.
+ *
+ * @param furnitureInstanceId The unique identifier of the furniture instance to update.
+ * @param shapeId The unique identifier for the shape of the new top-down view.
+ * @param shapeVersion The version timestamp of the shape.
+ * @param instructions A list of instructions that define the new top-down view.
+ */
+public record FurnitureInstanceUpdateDataTransferObject(
+    Long furnitureInstanceId, Long shapeId, Instant shapeVersion, List<Instruction> instructions) {}
@@ -2,10 +2,32 @@ package com.warehousemanager.furnituremanagement;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.web.client.RestClientBuilderConfigurer;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Scope;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.client.RestClient;
 
 @SpringBootApplication
+@EnableScheduling
 public class FurnitureManagementApplication {
 
+  /**
+   * Creates the RestClient builder used for all calls to other services. Service names in request
+   * URLs, e.g. {@code http://shape-management/shapes}, are resolved by the load balancer, which
+   * spreads the calls round-robin across the registered instances using a cached instance list.
+   *
+   * @param configurer the configurer applying the Spring Boot defaults
+   * @return a new load-balanced RestClient builder
+   */
+  @Bean
+  @LoadBalanced
+  @Scope("prototype")
+  public RestClient.Builder restClientBuilder(RestClientBuilderConfigurer configurer) {
+    return configurer.configure(RestClient.builder());
+  }
+
   public static void main(String[] args) {
     SpringApplication.run(FurnitureManagementApplication.class, args);
   }
@@ -0,0 +1,13 @@
+package com.warehousemanager.furnituremanagement;
+
+/**
+ * Data Transfer Object (DTO) for a change of an item, published by the item service through its
+ * outbox. Events are delivered at least once, in the order they were recorded.
+ *
+ * @param id the identifier of the event, increasing in the order events were recorded
+ * @param type the kind of change
+ * @param itemId the identifier of the changed item
+ * @param oldZoneId the identifier of the zone instance the item was stored in, for moves
+ * @param newZoneId the identifier of the zone instance the item is stored in now, for moves
+ */
+public record ItemEvent(Long id, ItemEventType type, Long itemId, Long oldZoneId, Long newZoneId) {}
@@ -0,0 +1,9 @@
+package com.warehousemanager.furnituremanagement;
+
+/**
+ * Represents a unique identifier for the placement of an item in a zone instance.
+ *
+ * @param zoneInstanceId The unique identifier for the zone instance.
+ * @param itemId The unique identifier for the item.
+ */
+public record ZoneInstanceItemId(Long zoneInstanceId, Long itemId) {}
@@ -0,0 +1,13 @@
+package com.warehousemanager.furnituremanagement;
+
+/**
+ * Data Transfer Object (DTO) describing where a zone instance is, reported to the item service so
+ * that it can locate items without resolving zone and furniture instances.
+ *
+ * @param zoneInstanceId the identifier of the zone instance
+ * @param furnitureInstanceId the identifier of the furniture instance the zone instance belongs to
+ * @param positionX the X position of the furniture instance on its floor
+ * @param positionY the Y position of the furniture instance on its floor
+ */
+public record ZoneInstanceLocation(
+    Long zoneInstanceId, Long furnitureInstanceId, Double positionX, Double positionY) {}
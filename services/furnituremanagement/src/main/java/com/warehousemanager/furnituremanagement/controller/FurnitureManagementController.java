@@ -2,44 +2,58 @@ package com.warehousemanager.furnituremanagement.controller;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.warehousemanager.furnituremanagement.FurnitureDataTransferObject;
+import com.warehousemanager.furnituremanagement.FurnitureId;
 import com.warehousemanager.furnituremanagement.FurnitureInstanceCreateDataTransferObject;
 import com.warehousemanager.furnituremanagement.FurnitureInstanceResponseDataTransferObject;
+import com.warehousemanager.furnituremanagement.FurnitureInstanceUpdateDataTransferObject;
 import com.warehousemanager.furnituremanagement.FurnitureResponseDataTransferObject;
 import com.warehousemanager.furnituremanagement.FurnitureTopDownView;
+import com.warehousemanager.furnituremanagement.ItemEvent;
+import com.warehousemanager.furnituremanagement.ItemResponseDataTransferObject;
 import com.warehousemanager.furnituremanagement.MoveItemRequest;
 import com.warehousemanager.furnituremanagement.Shape;
 import com.warehousemanager.furnituremanagement.ShapeInstance;
 import com.warehousemanager.furnituremanagement.ShapeInstanceCreateObject;
 import com.warehousemanager.furnituremanagement.ZoneDataTransferObject;
+import com.warehousemanager.furnituremanagement.ZoneInstanceLocation;
 import com.warehousemanager.furnituremanagement.ZoneInstanceResponseDataTransferObject;
 import com.warehousemanager.furnituremanagement.ZoneResponseDataTransferObject;
 import com.warehousemanager.furnituremanagement.entities.Furniture;
 import com.warehousemanager.furnituremanagement.entities.FurnitureInstance;
-import com.warehousemanager.furnituremanagement.entities.FurnitureInstanceHistory;
 import com.warehousemanager.furnituremanagement.entities.Zone;
 import com.warehousemanager.furnituremanagement.entities.ZoneInstance;
-import com.warehousemanager.furnituremanagement.repositories.FurnitureInstanceHistoryRepository;
 import com.warehousemanager.furnituremanagement.repositories.FurnitureInstanceRepository;
 import com.warehousemanager.furnituremanagement.repositories.FurnitureRepository;
-import com.warehousemanager.furnituremanagement.repositories.ZoneInstanceRepository;
 import com.warehousemanager.furnituremanagement.repositories.ZoneRepository;
+import com.warehousemanager.furnituremanagement.services.DeletedItemReconciler;
+import com.warehousemanager.furnituremanagement.services.FanOutExecutor;
+import com.warehousemanager.furnituremanagement.services.FurnitureInstanceService;
 import com.warehousemanager.furnituremanagement.services.FurnitureService;
-import java.time.Instant;
+import com.warehousemanager.furnituremanagement.services.ItemEventHandler;
+import com.warehousemanager.furnituremanagement.services.ResolutionContext;
+import com.warehousemanager.furnituremanagement.services.ZoneLocationService;
+import com.warehousemanager.furnituremanagement.services.ZoneMembershipService;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -49,64 +63,141 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /** Controller for managing furniture in the warehouse management system. */
 @RestController
 public class FurnitureManagementController {
 
-  private final DiscoveryClient discoveryClient;
   private final RestClient restClient;
   private final FurnitureRepository furnitureRepository;
   private final ZoneRepository zoneRepository;
   private final FurnitureInstanceRepository furnitureInstanceRepository;
-  private final FurnitureInstanceHistoryRepository furnitureInstanceHistoryRepository;
-  private final ZoneInstanceRepository zoneInstanceRepository;
   private final FurnitureService furnitureService;
+  private final FanOutExecutor fanOutExecutor;
+  private final ZoneMembershipService zoneMembershipService;
+  private final FurnitureInstanceService furnitureInstanceService;
+  private final ZoneLocationService zoneLocationService;
+  private final DeletedItemReconciler deletedItemReconciler;
+  private final ItemEventHandler itemEventHandler;
+  private final ObjectMapper objectMapper;
+  private final EntityManager entityManager;
+  private final TransactionTemplate readOnlyTransaction;
   private static final Logger logger = LoggerFactory.getLogger(FurnitureManagementController.class);
+  private static final String SHAPE_SERVICE_URL = "http://shape-management";
+  private static final String ITEM_SERVICE_URL = "http://item-management";
+  private static final String RESOLUTION_STATISTICS_HEADER = "X-Resolution-Statistics";
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final int MAX_PAGE_SIZE = 1000;
 
   /**
    * Constructs a FurnitureManagementController with the specified dependencies.
    *
-   * @param discoveryClient the DiscoveryClient for service discovery
    * @param restClientBuilder the RestClient builder for making REST calls
    * @param furnitureRepository the repository for managing furniture entities
    * @param zoneRepository the repository for managing zone entities
    * @param furnitureInstanceRepository the repository for managing furniture instance entities
-   * @param furnitureInstanceHistoryRepository the repository for managing furniture instance
-   *     history entities
-   * @param zoneInstanceRepository the repository for managing zone instance entities
    * @param furnitureService the service for managing furniture operations
+   * @param fanOutExecutor the executor for issuing downstream calls concurrently
+   * @param zoneMembershipService the service for changing which items are placed in which zones
+   * @param furnitureInstanceService the service for changing many furniture instances at once
+   * @param zoneLocationService the service for describing where zone instances are
+   * @param deletedItemReconciler the job removing deleted items from zone instances
+   * @param itemEventHandler the service applying the events delivered by the item service
+   * @param objectMapper the mapper for writing streamed JSON responses
+   * @param entityManager the entity manager for detaching streamed furniture once it is written
+   * @param transactionManager the transaction manager for the transactions furniture is streamed
+   *     in
    */
   public FurnitureManagementController(
-      DiscoveryClient discoveryClient,
       RestClient.Builder restClientBuilder,
       FurnitureRepository furnitureRepository,
       ZoneRepository zoneRepository,
       FurnitureInstanceRepository furnitureInstanceRepository,
-      ZoneInstanceRepository zoneInstanceRepository,
-      FurnitureInstanceHistoryRepository furnitureInstanceHistoryRepository,
-      FurnitureService furnitureService) {
-    this.discoveryClient = discoveryClient;
+      FurnitureService furnitureService,
+      FanOutExecutor fanOutExecutor,
+      ZoneMembershipService zoneMembershipService,
+      FurnitureInstanceService furnitureInstanceService,
+      ZoneLocationService zoneLocationService,
+      DeletedItemReconciler deletedItemReconciler,
+      ItemEventHandler itemEventHandler,
+      ObjectMapper objectMapper,
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager) {
     this.restClient = restClientBuilder.build();
     this.furnitureRepository = furnitureRepository;
     this.zoneRepository = zoneRepository;
     this.furnitureInstanceRepository = furnitureInstanceRepository;
-    this.zoneInstanceRepository = zoneInstanceRepository;
     this.furnitureService = furnitureService;
-    this.furnitureInstanceHistoryRepository = furnitureInstanceHistoryRepository;
+    this.fanOutExecutor = fanOutExecutor;
+    this.zoneMembershipService = zoneMembershipService;
+    this.furnitureInstanceService = furnitureInstanceService;
+    this.zoneLocationService = zoneLocationService;
+    this.deletedItemReconciler = deletedItemReconciler;
+    this.itemEventHandler = itemEventHandler;
+    this.objectMapper = objectMapper;
+    this.entityManager = entityManager;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
   }
 
   /**
-   * Retrieves all furniture from the furniture management service.
+   * Retrieves all furniture from the furniture management service. The furniture is read from a
+   * database cursor and written to the response one piece at a time, so the heap use does not
+   * grow with the amount of furniture.
    *
-   * @return a string representation of the furniture management service response
+   * @return the furniture as a JSON array, ordered by ID
    */
   @GetMapping("/furniture")
-  public Iterable<Furniture> getFurniture() {
+  public ResponseEntity<StreamingResponseBody> getFurniture() {
     logger.info("Received request to get all furniture");
-    Iterable<Furniture> furnitureList = furnitureRepository.findByDeletedFalseAndCurrentTrue();
-    logger.info("Retrieved {} furniture items", furnitureList.spliterator().getExactSizeIfKnown());
-    return furnitureList;
+    StreamingResponseBody body =
+        outputStream ->
+            readOnlyTransaction.executeWithoutResult(
+                status -> {
+                  try (Stream<Furniture> furnitureStream =
+                          furnitureRepository.streamByDeletedFalseAndCurrentTrueOrderByIdAsc();
+                      JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.writeStartArray();
+                    Iterator<Furniture> iterator = furnitureStream.iterator();
+                    while (iterator.hasNext()) {
+                      Furniture furniture = iterator.next();
+                      generator.writePOJO(furniture);
+                      entityManager.detach(furniture);
+                    }
+                    generator.writeEndArray();
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+    return ResponseEntity.ok().contentType(APPLICATION_JSON).body(body);
+  }
+
+  /**
+   * Retrieves a page of furniture using keyset pagination. If the page is full, the ID to pass as
+   * {@code afterId} for the next page is returned in the X-Next-Cursor header.
+   *
+   * @param afterId the ID after which the page starts, 0 for the first page
+   * @param limit the maximum number of furniture in the page
+   * @return the furniture of the page, ordered by ID
+   */
+  @GetMapping(value = "/furniture", params = "limit")
+  public ResponseEntity<List<Furniture>> getFurniturePage(
+      @RequestParam(defaultValue = "0") Long afterId, @RequestParam int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    List<Furniture> furniture =
+        furnitureRepository.findByIdGreaterThanAndDeletedFalseAndCurrentTrueOrderByIdAsc(
+            afterId, Limit.of(limit));
+    logger.info("Retrieved {} furniture after ID {}", furniture.size(), afterId);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (furniture.size() == limit) {
+      response.header(
+          NEXT_CURSOR_HEADER, String.valueOf(furniture.get(furniture.size() - 1).getId()));
+    }
+    return response.body(furniture);
   }
 
   /**
@@ -130,6 +221,21 @@ public class FurnitureManagementController {
     return furnitureResponse;
   }
 
+  /**
+   * Retrieves all versions of a furniture, including archived ones.
+   *
+   * @param id the ID of the furniture
+   * @return the versions of the furniture, newest first
+   */
+  @GetMapping("/furniture/{id}/history")
+  public List<Furniture> getFurnitureHistory(@PathVariable Long id) {
+    List<Furniture> versions = furnitureRepository.findAllVersionsById(id);
+    if (versions.isEmpty()) {
+      throw new IllegalArgumentException("Furniture not found with ID: " + id);
+    }
+    return versions;
+  }
+
   /**
    * Retrieves the top-down view template for a specific furniture.
    *
@@ -146,8 +252,7 @@ public class FurnitureManagementController {
       throw new IllegalArgumentException("Furniture not found with ID: " + id);
     }
     logger.info("Found furniture: {}", furniture);
-    ServiceInstance serviceInstance = discoveryClient.getInstances("shape-management").get(0);
-    String baseUrl = serviceInstance.getUri() + "/shapes/";
+    String baseUrl = SHAPE_SERVICE_URL + "/shapes/";
     ShapeInstance topDownViewShape =
         restClient
             .get()
@@ -175,42 +280,8 @@ public class FurnitureManagementController {
 
     Long nextId = furnitureRepository.getNextId();
     Furniture furniture = new Furniture(nextId, furnitureName, topDownViewId);
-
-    ServiceInstance serviceInstance = discoveryClient.getInstances("shape-management").get(0);
-    String batchShapeUrl = serviceInstance.getUri() + "/shapes/instances/batch";
-    List<ShapeInstance> shapeInstances =
-        restClient
-            .post()
-            .uri(batchShapeUrl)
-            .contentType(APPLICATION_JSON)
-            .body(shapes)
-            .retrieve()
-            .body(new ParameterizedTypeReference<List<ShapeInstance>>() {});
-    logger.info("Shape instances created: {}", shapeInstances);
-    furniture.setShapeIds(shapeInstances.stream().map(ShapeInstance::id).toList());
-    Furniture savedFurniture = furnitureRepository.save(furniture);
-
-    String zoneCreationUrl = serviceInstance.getUri() + "/shapes/instances";
-    List<ZoneDataTransferObject> zoneDataTransferObjects = furnitureDataTransferObject.zones();
-    List<Zone> zones = new ArrayList<>();
-    for (ZoneDataTransferObject zoneDataTransferObject : zoneDataTransferObjects) {
-      Shape shape = zoneDataTransferObject.shape();
-      ShapeInstance shapeInstance =
-          restClient
-              .post()
-              .uri(zoneCreationUrl)
-              .contentType(APPLICATION_JSON)
-              .body(shape)
-              .retrieve()
-              .body(new ParameterizedTypeReference<ShapeInstance>() {});
-      String zoneName = zoneDataTransferObject.name();
-      logger.info("Creating zone with name: {} and shape ID: {}", zoneName, shape.shapeId());
-      Zone zone = new Zone(zoneName, shapeInstance.id(), savedFurniture);
-      Zone savedZone = zoneRepository.save(zone);
-      zones.add(savedZone);
-    }
-
-    savedFurniture.setZones(zones);
+    Furniture savedFurniture =
+        saveWithShapesAndZones(furniture, shapes, furnitureDataTransferObject.zones());
 
     return savedFurniture;
   }
@@ -231,42 +302,63 @@ public class FurnitureManagementController {
     updatedFurniture.setName(newName);
     updatedFurniture.setTopDownViewId(newTopDownViewId);
 
-    ServiceInstance serviceInstance = discoveryClient.getInstances("shape-management").get(0);
-    String batchShapeUrl = serviceInstance.getUri() + "/shapes/instances/batch";
-    List<ShapeInstance> shapeInstances =
-        restClient
-            .post()
-            .uri(batchShapeUrl)
-            .contentType(APPLICATION_JSON)
-            .body(newShapes)
-            .retrieve()
-            .body(new ParameterizedTypeReference<List<ShapeInstance>>() {});
-    updatedFurniture.setShapeIds(shapeInstances.stream().map(ShapeInstance::id).toList());
-    Furniture savedFurniture = furnitureRepository.save(updatedFurniture);
+    Furniture savedFurniture =
+        saveWithShapesAndZones(updatedFurniture, newShapes, furnitureDataTransferObject.zones());
 
     existingFurniture.setCurrent(false);
     furnitureRepository.save(existingFurniture);
 
-    String zoneCreationUrl = serviceInstance.getUri() + "/shapes/instances";
-    List<ZoneDataTransferObject> zoneDataTransferObjects = furnitureDataTransferObject.zones();
-    List<Zone> zones = new ArrayList<>();
-    for (ZoneDataTransferObject zoneDataTransferObject : zoneDataTransferObjects) {
-      Shape shape = zoneDataTransferObject.shape();
-      ShapeInstance shapeInstance =
-          restClient
-              .post()
-              .uri(zoneCreationUrl)
-              .contentType(APPLICATION_JSON)
-              .body(shape)
-              .retrieve()
-              .body(new ParameterizedTypeReference<ShapeInstance>() {});
-      String zoneName = zoneDataTransferObject.name();
-      logger.info("Creating zone with name: {} and shape ID: {}", zoneName, shape.shapeId());
-      Zone zone = new Zone(zoneName, shapeInstance.id(), savedFurniture);
-      Zone savedZone = zoneRepository.save(zone);
-      zones.add(savedZone);
+    return savedFurniture;
+  }
+
+  /**
+   * Creates the shape instances of a furniture version and its zones with a single request to the
+   * shape service, then saves the furniture and all its zones.
+   *
+   * @param furniture the furniture version to save
+   * @param shapes the shapes the furniture is built from
+   * @param zoneDataTransferObjects the zones of the furniture
+   * @return the saved furniture with its zones
+   */
+  private Furniture saveWithShapesAndZones(
+      Furniture furniture,
+      List<Shape> shapes,
+      List<ZoneDataTransferObject> zoneDataTransferObjects) {
+    List<ZoneDataTransferObject> zoneDtos =
+        zoneDataTransferObjects == null ? List.of() : zoneDataTransferObjects;
+    List<Shape> allShapes = new ArrayList<>(shapes);
+    for (ZoneDataTransferObject zoneDataTransferObject : zoneDtos) {
+      allShapes.add(zoneDataTransferObject.shape());
     }
+    List<ShapeInstanceCreateObject> shapeInstanceCreateObjects =
+        allShapes.stream()
+            .map(
+                shape ->
+                    new ShapeInstanceCreateObject(
+                        shape.shapeId(), shape.shapeVersion(), shape.instructions()))
+            .toList();
+    List<ShapeInstance> shapeInstances =
+        furnitureService.createShapeInstances(shapeInstanceCreateObjects);
+    furniture.setShapeIds(
+        shapeInstances.subList(0, shapes.size()).stream().map(ShapeInstance::id).toList());
+    Furniture savedFurniture = furnitureRepository.save(furniture);
 
+    List<Zone> zones = new ArrayList<>();
+    for (int i = 0; i < zoneDtos.size(); i++) {
+      String zoneName = zoneDtos.get(i).name();
+      Long shapeInstanceId = shapeInstances.get(shapes.size() + i).id();
+      logger.info(
+          "Creating zone with name: {} and shape instance ID: {}", zoneName, shapeInstanceId);
+      zones.add(new Zone(zoneName, shapeInstanceId, savedFurniture));
+    }
+    List<Zone> savedZones = new ArrayList<>();
+    zoneRepository.saveAll(zones).forEach(savedZones::add);
+    savedFurniture.setZones(savedZones);
+    logger.info(
+        "Saved furniture {} with {} shapes and {} zones",
+        savedFurniture.getId(),
+        shapes.size(),
+        savedZones.size());
     return savedFurniture;
   }
 
@@ -288,30 +380,24 @@ public class FurnitureManagementController {
   }
 
   /**
-   * Filters out deleted items from the provided JSON node and updates the zone instance
-   * accordingly.
+   * Filters out deleted items. The deleted items are queued for removal from their zone instances
+   * instead of being removed while serving the read.
    *
-   * @param items the JSON node containing items to be filtered
-   * @param zoneInstance the zone instance to remove deleted item IDs from
-   * @return a JSON node containing only non-deleted items
+   * @param items the items to be filtered, keyed by their IDs
+   * @return the non-deleted items keyed by their IDs
    */
-  public JsonNode filterDeletedItems(JsonNode items, ZoneInstance zoneInstance) {
-    ObjectMapper mapper = new ObjectMapper();
-    ObjectNode filteredItems = mapper.createObjectNode();
-
-    Set<Map.Entry<String, JsonNode>> properties = items.properties();
-    for (Map.Entry<String, JsonNode> entry : properties) {
-      JsonNode itemNode = entry.getValue();
-      Long itemId = itemNode.get("id").asLong();
-
-      boolean isDeleted = itemNode.get("deleted").asBoolean();
-      if (!isDeleted) {
-        filteredItems.set(entry.getKey(), itemNode);
+  public Map<Long, ItemResponseDataTransferObject> filterDeletedItems(
+      Map<Long, ItemResponseDataTransferObject> items) {
+    Map<Long, ItemResponseDataTransferObject> filteredItems = new LinkedHashMap<>();
+    List<Long> deletedItemIds = new ArrayList<>();
+    for (Map.Entry<Long, ItemResponseDataTransferObject> entry : items.entrySet()) {
+      if (Boolean.TRUE.equals(entry.getValue().deleted())) {
+        deletedItemIds.add(entry.getKey());
       } else {
-        zoneInstance.removeItemId(itemId);
-        zoneInstanceRepository.save(zoneInstance);
+        filteredItems.put(entry.getKey(), entry.getValue());
       }
     }
+    deletedItemReconciler.enqueue(deletedItemIds);
     return filteredItems;
   }
 
@@ -324,31 +410,34 @@ public class FurnitureManagementController {
             .findById(id)
             .orElseThrow(() -> new RuntimeException("Furniture instance not found with ID: " + id));
     logger.info("Found furniture instance: {}", furnitureInstance);
-    ServiceInstance shapeServiceInstance = discoveryClient.getInstances("shape-management").get(0);
-    String shapesUrl = shapeServiceInstance.getUri() + "/shapes/";
+    String shapesUrl = SHAPE_SERVICE_URL + "/shapes/";
+    Furniture furniture = furnitureInstance.getFurniture();
+    Set<Long> shapeInstanceIds = furnitureService.collectShapeInstanceIds(furniture);
+    shapeInstanceIds.add(furnitureInstance.getTopDownViewInstanceId());
+    for (ZoneInstance zoneInstance : furnitureInstance.getZoneInstances()) {
+      shapeInstanceIds.add(zoneInstance.getZone().getShapeId());
+    }
+    Map<Long, ShapeInstance> shapeInstances =
+        furnitureService.getShapeInstances(shapeInstanceIds, shapesUrl);
     FurnitureResponseDataTransferObject furnitureResponseDataTransferObject =
-        furnitureService.convertToDto(furnitureInstance.getFurniture(), shapesUrl);
+        furnitureService.convertToDto(
+            furniture, shapeInstances, furnitureService.getTopDownViewShape(furniture, shapesUrl));
     List<ZoneInstanceResponseDataTransferObject> zoneInstances = new ArrayList<>();
 
-    ServiceInstance itemServiceInstance = discoveryClient.getInstances("item-management").get(0);
-    String itemsUrl = itemServiceInstance.getUri() + "/items/batch";
+    String itemsUrl = ITEM_SERVICE_URL + "/items/batch/query";
+    Map<Long, Set<Long>> zoneItemIds =
+        zoneMembershipService.getItemIds(
+            furnitureInstance.getZoneInstances().stream().map(ZoneInstance::getId).toList());
 
     for (ZoneInstance zoneInstance : furnitureInstance.getZoneInstances()) {
       Zone zone = zoneInstance.getZone();
       ZoneResponseDataTransferObject zoneResponse =
-          furnitureService.convertZoneToDto(zone, shapesUrl);
+          furnitureService.convertZoneToDto(zone, shapeInstances);
 
-      Set<Long> itemIds = zoneInstance.getItemIds();
-      String itemIdsParameter =
-          itemIds.stream().map(String::valueOf).collect(Collectors.joining(","));
-      JsonNode items =
-          restClient
-              .get()
-              .uri(itemsUrl + "?itemIds=" + itemIdsParameter)
-              .retrieve()
-              .body(JsonNode.class);
+      Map<Long, ItemResponseDataTransferObject> items =
+          furnitureService.getItems(zoneItemIds.get(zoneInstance.getId()), itemsUrl);
 
-      JsonNode filteredItems = filterDeletedItems(items, zoneInstance);
+      Map<Long, ItemResponseDataTransferObject> filteredItems = filterDeletedItems(items);
 
       ZoneInstanceResponseDataTransferObject zoneInstanceResponse =
           new ZoneInstanceResponseDataTransferObject(
@@ -356,7 +445,7 @@ public class FurnitureManagementController {
       zoneInstances.add(zoneInstanceResponse);
     }
     ShapeInstance topDownViewShapeInstance =
-        furnitureService.getShapeInstance(furnitureInstance.getTopDownViewInstanceId(), shapesUrl);
+        shapeInstances.get(furnitureInstance.getTopDownViewInstanceId());
     FurnitureInstanceResponseDataTransferObject response =
         new FurnitureInstanceResponseDataTransferObject(
             furnitureInstance.getId(),
@@ -368,208 +457,197 @@ public class FurnitureManagementController {
   }
 
   @GetMapping("/furniture/instances/batch")
-  public List<FurnitureInstanceResponseDataTransferObject> getFurnitureInstances(
+  public ResponseEntity<List<FurnitureInstanceResponseDataTransferObject>> getFurnitureInstances(
       @RequestParam List<Long> furnitureInstanceIds) {
     logger.info("Received request to get furniture instances for IDs: {}", furnitureInstanceIds);
-    ServiceInstance shapeServiceInstance = discoveryClient.getInstances("shape-management").get(0);
-    String shapesUrl = shapeServiceInstance.getUri() + "/shapes/";
+    String shapesUrl = SHAPE_SERVICE_URL + "/shapes/";
 
-    ServiceInstance itemServiceInstance = discoveryClient.getInstances("item-management").get(0);
-    String itemsUrl = itemServiceInstance.getUri() + "/items/batch";
+    String itemsUrl = ITEM_SERVICE_URL + "/items/batch/query";
 
-    Map<Long, FurnitureResponseDataTransferObject> furnitureMap = new HashMap<>();
-    Map<Long, ShapeInstance> zoneShapeMap = new HashMap<>();
-    List<FurnitureInstanceResponseDataTransferObject> furnitureInstances = new ArrayList<>();
+    // Load all entities on the request thread, lazy collections cannot be used by the fan-out
+    Map<Long, FurnitureInstance> loadedInstances = new HashMap<>();
+    for (FurnitureInstance furnitureInstance :
+        furnitureInstanceRepository.findAllById(furnitureInstanceIds)) {
+      loadedInstances.put(furnitureInstance.getId(), furnitureInstance);
+    }
+    Map<Long, Set<Long>> zoneItemIds =
+        zoneMembershipService.getItemIds(
+            loadedInstances.values().stream()
+                .flatMap(furnitureInstance -> furnitureInstance.getZoneInstances().stream())
+                .map(ZoneInstance::getId)
+                .toList());
+    ResolutionContext context =
+        new ResolutionContext(furnitureService, fanOutExecutor, shapesUrl, itemsUrl);
+    List<FurnitureInstance> furnitureInstanceList = new ArrayList<>();
     for (Long furnitureInstanceId : furnitureInstanceIds) {
-      logger.info("Fetching furniture instance for ID: {}", furnitureInstanceId);
-      FurnitureInstance furnitureInstance =
-          furnitureInstanceRepository
-              .findById(furnitureInstanceId)
-              .orElseThrow(
-                  () ->
-                      new RuntimeException(
-                          "Furniture instance not found with ID: " + furnitureInstanceId));
-      // Prepare furniture response data transfer object
-      FurnitureResponseDataTransferObject furnitureResponseDataTransferObject = null;
-      Long furnitureId = furnitureInstance.getFurniture().getId();
-      if (!furnitureMap.containsKey(furnitureId)) {
-        furnitureResponseDataTransferObject =
-            furnitureService.convertToDto(furnitureInstance.getFurniture());
-        furnitureMap.put(furnitureId, furnitureResponseDataTransferObject);
-      } else {
-        furnitureResponseDataTransferObject = furnitureMap.get(furnitureId);
+      FurnitureInstance furnitureInstance = loadedInstances.get(furnitureInstanceId);
+      if (furnitureInstance == null) {
+        throw new RuntimeException("Furniture instance not found with ID: " + furnitureInstanceId);
       }
+      furnitureInstanceList.add(furnitureInstance);
+      Furniture furniture = furnitureInstance.getFurniture();
+      context.requestShapeInstances(furnitureService.collectShapeInstanceIds(furniture));
+      context.requestTemplate(furniture.getTopDownViewId());
+      context.requestShapeInstances(List.of(furnitureInstance.getTopDownViewInstanceId()));
+      for (ZoneInstance zoneInstance : furnitureInstance.getZoneInstances()) {
+        context.requestShapeInstances(List.of(zoneInstance.getZone().getShapeId()));
+        context.requestItems(zoneItemIds.get(zoneInstance.getId()));
+      }
+    }
+
+    context.resolve();
+
+    // Assemble the responses in input order
+    Map<Long, ShapeInstance> shapeInstances = context.getShapeInstances();
+    Map<FurnitureId, FurnitureResponseDataTransferObject> furnitureMap = new HashMap<>();
+    List<FurnitureInstanceResponseDataTransferObject> furnitureInstances = new ArrayList<>();
+    for (FurnitureInstance furnitureInstance : furnitureInstanceList) {
+      Furniture furniture = furnitureInstance.getFurniture();
+      FurnitureResponseDataTransferObject furnitureResponseDataTransferObject =
+          furnitureMap.computeIfAbsent(
+              new FurnitureId(furniture.getId(), furniture.getVersion()),
+              furnitureId ->
+                  furnitureService.convertToDto(
+                      furniture,
+                      shapeInstances,
+                      context.getTemplate(furniture.getTopDownViewId())));
 
-      // Prepare zone instances for the furniture instance
       List<ZoneInstanceResponseDataTransferObject> zoneInstances = new ArrayList<>();
       for (ZoneInstance zoneInstance : furnitureInstance.getZoneInstances()) {
-        Zone zone = zoneInstance.getZone();
-        Long shapeId = zone.getShapeId();
-        ShapeInstance zoneShape = null;
-        if (!zoneShapeMap.containsKey(shapeId)) {
-          zoneShape = furnitureService.getShapeInstance(shapeId, shapesUrl);
-        } else {
-          zoneShape = zoneShapeMap.get(shapeId);
-        }
-
-        Set<Long> itemIds = zoneInstance.getItemIds();
-        String itemIdsParameter =
-            itemIds.stream().map(String::valueOf).collect(Collectors.joining(","));
-        JsonNode items =
-            restClient
-                .get()
-                .uri(itemsUrl + "?itemIds=" + itemIdsParameter)
-                .retrieve()
-                .body(JsonNode.class);
-
-        JsonNode filteredItems = filterDeletedItems(items, zoneInstance);
-
-        ZoneInstanceResponseDataTransferObject zoneInstanceResponse =
+        Map<Long, ItemResponseDataTransferObject> filteredItems =
+            filterDeletedItems(context.getItems(zoneItemIds.get(zoneInstance.getId())));
+        zoneInstances.add(
             new ZoneInstanceResponseDataTransferObject(
                 zoneInstance.getId(),
-                new ZoneResponseDataTransferObject(zone.getId(), zone.getName(), zoneShape),
-                filteredItems);
-        zoneInstances.add(zoneInstanceResponse);
+                furnitureService.convertZoneToDto(zoneInstance.getZone(), shapeInstances),
+                filteredItems));
       }
 
-      // Fetch the top-down view shape instance for the zone
-      ShapeInstance topDownViewShapeInstance =
-          furnitureService.getShapeInstance(
-              furnitureInstance.getTopDownViewInstanceId(), shapesUrl);
-
-      // Prepare the furniture instance response data transfer object
       FurnitureInstanceResponseDataTransferObject furnitureInstanceResponse =
           new FurnitureInstanceResponseDataTransferObject(
               furnitureInstance.getId(),
-              topDownViewShapeInstance,
+              shapeInstances.get(furnitureInstance.getTopDownViewInstanceId()),
               zoneInstances,
               furnitureResponseDataTransferObject);
       furnitureInstances.add(furnitureInstanceResponse);
       logger.info("Furniture instance created: {}", furnitureInstanceResponse);
     }
-    logger.info("Found {} furniture instances for the provided IDs", furnitureInstances.size());
-    return furnitureInstances;
+    String statistics = context.describeStatistics();
+    logger.info(
+        "Found {} furniture instances for the provided IDs, lookups: {}",
+        furnitureInstances.size(),
+        statistics);
+    return ResponseEntity.ok()
+        .header(RESOLUTION_STATISTICS_HEADER, statistics)
+        .body(furnitureInstances);
+  }
+
+  /**
+   * Retrieves multiple furniture instances by their IDs passed in the request body. Intended for
+   * ID lists that are too long to be passed as a query parameter, e.g. all furniture of a floor.
+   *
+   * @param furnitureInstanceIds the IDs of the furniture instances
+   * @return the furniture instances in the requested order
+   */
+  @PostMapping("/furniture/instances/batch/query")
+  public ResponseEntity<List<FurnitureInstanceResponseDataTransferObject>>
+      queryFurnitureInstances(@RequestBody List<Long> furnitureInstanceIds) {
+    return getFurnitureInstances(furnitureInstanceIds);
   }
 
   @PostMapping("/furniture/instances/batch")
   public Iterable<FurnitureInstance> createFurnitureInstances(
       @RequestBody List<FurnitureInstanceCreateDataTransferObject> furnitureDataTransferObjects) {
-    logger.info("Received request to create multiple furniture instances");
-    ServiceInstance serviceInstance = discoveryClient.getInstances("shape-management").get(0);
-    String url = serviceInstance.getUri() + "/shapes/instances";
-    List<FurnitureInstance> createdFurniture = new ArrayList<>();
-    for (FurnitureInstanceCreateDataTransferObject furnitureDataTransferObject :
-        furnitureDataTransferObjects) {
-      logger.info(
-          "Creating furniture instance for furniture ID: {}",
-          furnitureDataTransferObject.furnitureId());
-      Furniture furniture =
-          furnitureRepository
-              .findByIdEqualsAndDeletedFalseAndCurrentTrue(
-                  furnitureDataTransferObject.furnitureId())
-              .orElseThrow(
-                  () ->
-                      new RuntimeException(
-                          "Furniture not found with ID: "
-                              + furnitureDataTransferObject.furnitureId()));
-      ShapeInstanceCreateObject shapeInstanceCreateObject =
-          new ShapeInstanceCreateObject(
-              furnitureDataTransferObject.shapeId(),
-              null,
-              furnitureDataTransferObject.instructions());
-      ShapeInstance topDownViewInstance =
-          restClient
-              .post()
-              .uri(url)
-              .contentType(APPLICATION_JSON)
-              .body(shapeInstanceCreateObject)
-              .retrieve()
-              .body(new ParameterizedTypeReference<ShapeInstance>() {});
-      logger.info("Top-down view shape instance created: {}", topDownViewInstance);
-      FurnitureInstance furnitureInstance =
-          new FurnitureInstance(furniture, topDownViewInstance.id());
-      createdFurniture.add(furnitureInstance);
-    }
-    logger.info("Created {} furniture instances", createdFurniture.size());
-    Iterable<FurnitureInstance> savedFurnitureInstances =
-        furnitureInstanceRepository.saveAll(createdFurniture);
-    for (FurnitureInstance furnitureInstance : savedFurnitureInstances) {
-      logger.info(
-          "Creating zone instances for furniture instance ID: {}", furnitureInstance.getId());
-      List<ZoneInstance> zoneInstances = new ArrayList<>();
-      for (Zone zone : furnitureInstance.getFurniture().getZones()) {
-        ZoneInstance zoneInstance = new ZoneInstance(zone, furnitureInstance);
-        ZoneInstance savedZoneInstance = zoneInstanceRepository.save(zoneInstance);
-        logger.info("Created zone instance: {}", savedZoneInstance);
-        zoneInstances.add(savedZoneInstance);
-      }
-      furnitureInstance.setZoneInstances(zoneInstances);
-    }
-    logger.info("Saved furniture instances: {}", savedFurnitureInstances);
-    return savedFurnitureInstances;
+    logger.info(
+        "Received request to create {} furniture instances", furnitureDataTransferObjects.size());
+    return furnitureInstanceService.createFurnitureInstances(furnitureDataTransferObjects);
   }
 
+  /**
+   * Updates the top-down views of multiple furniture instances with one request to the shape
+   * service and batched writes.
+   *
+   * @param updates the updates to apply
+   * @return the updated furniture instances
+   */
+  @PutMapping("/furniture/instances/batch")
+  public List<FurnitureInstance> updateFurnitureInstances(
+      @RequestBody List<FurnitureInstanceUpdateDataTransferObject> updates) {
+    logger.info("Received request to update {} furniture instances", updates.size());
+    return furnitureInstanceService.updateFurnitureInstances(updates);
+  }
+
+  /**
+   * Updates the top-down view of a furniture instance.
+   *
+   * @param id the ID of the furniture instance
+   * @param dto the new top-down view
+   * @return the updated furniture instance
+   */
   @PutMapping("/furniture/instances/{id}")
   public FurnitureInstance updateFurnitureInstance(
       @PathVariable Long id, @RequestBody FurnitureInstanceCreateDataTransferObject dto) {
     logger.info("Received request to update furniture instance with ID: {}", id);
-    FurnitureInstance existingInstance =
-        furnitureInstanceRepository
-            .findById(id)
-            .orElseThrow(() -> new RuntimeException("Furniture instance not found with ID: " + id));
+    FurnitureInstanceUpdateDataTransferObject update =
+        new FurnitureInstanceUpdateDataTransferObject(
+            id, dto.shapeId(), dto.shapeVersion(), dto.instructions());
+    FurnitureInstance savedInstance =
+        furnitureInstanceService.updateFurnitureInstances(List.of(update)).get(0);
+    logger.info("Updated furniture instance: {}", savedInstance);
+    return savedInstance;
+  }
 
-    FurnitureInstanceHistory historyRecord = new FurnitureInstanceHistory(existingInstance);
-    furnitureInstanceHistoryRepository.save(historyRecord);
+  /**
+   * Retrieves the locations of zone instances, i.e. their furniture instances and the positions of
+   * those furniture instances.
+   *
+   * @param zoneInstanceIds the IDs of the zone instances
+   * @return the locations of the zone instances that exist
+   */
+  @GetMapping("/furniture/zones/instances/locations")
+  public List<ZoneInstanceLocation> getZoneInstanceLocations(
+      @RequestParam List<Long> zoneInstanceIds) {
+    return zoneLocationService.getLocations(zoneInstanceIds);
+  }
 
-    existingInstance.setVersion(Instant.now());
+  /**
+   * Retrieves the locations of zone instances whose IDs are passed in the request body. Intended
+   * for ID lists that are too long to be passed as a query parameter.
+   *
+   * @param zoneInstanceIds the IDs of the zone instances
+   * @return the locations of the zone instances that exist
+   */
+  @PostMapping("/furniture/zones/instances/locations/query")
+  public List<ZoneInstanceLocation> queryZoneInstanceLocations(
+      @RequestBody List<Long> zoneInstanceIds) {
+    return zoneLocationService.getLocations(zoneInstanceIds);
+  }
 
-    ServiceInstance serviceInstance = discoveryClient.getInstances("shape-management").get(0);
-    String url = serviceInstance.getUri() + "/shapes/instances";
-    ShapeInstanceCreateObject shapeInstanceCreateObject =
-        new ShapeInstanceCreateObject(dto.shapeId(), dto.shapeVersion(), dto.instructions());
-    ShapeInstance topDownViewInstance =
-        restClient
-            .post()
-            .uri(url)
-            .contentType(APPLICATION_JSON)
-            .body(shapeInstanceCreateObject)
-            .retrieve()
-            .body(new ParameterizedTypeReference<ShapeInstance>() {});
-    existingInstance.setTopDownViewId(topDownViewInstance.id());
-    FurnitureInstance savedInstance = furnitureInstanceRepository.save(existingInstance);
+  /**
+   * Removes deleted items from the zone instances they were placed in, with a single statement.
+   *
+   * @param itemIds the IDs of the deleted items
+   */
+  @PostMapping("/furniture/zones/instances/items/deleted")
+  public void removeDeletedItems(@RequestBody Set<Long> itemIds) {
+    logger.info("Received {} deleted items to remove from zone instances", itemIds.size());
+    zoneMembershipService.removeItems(itemIds);
+  }
 
-    logger.info("Updated furniture instance: {}", savedInstance);
-    return savedInstance;
+  /**
+   * Applies a batch of item events delivered by the outbox relay of the item service.
+   *
+   * @param events the events, ordered by their IDs
+   */
+  @PostMapping("/furniture/items/events")
+  public void applyItemEvents(@RequestBody List<ItemEvent> events) {
+    logger.info("Received {} item events", events.size());
+    itemEventHandler.apply(events);
   }
 
   @PostMapping("/furniture/zones/instances/moveItem/batch")
   public void moveItems(@RequestBody List<MoveItemRequest> requests) {
-    for (MoveItemRequest request : requests) {
-      Long itemId = request.itemId();
-      Long oldZoneId = request.oldZoneId();
-      ZoneInstance oldZoneInstance =
-          oldZoneId != null ? zoneInstanceRepository.findById(oldZoneId).orElse(null) : null;
-
-      if (oldZoneInstance != null) {
-        if (!oldZoneInstance.containsItemId(itemId)) {
-          logger.warn("Item ID {} not found in old zone instance {}", itemId, oldZoneId);
-        }
-        oldZoneInstance.removeItemId(itemId);
-        zoneInstanceRepository.save(oldZoneInstance);
-      }
-
-      Long newZoneId = request.newZoneId();
-      ZoneInstance newZoneInstance =
-          newZoneId != null ? zoneInstanceRepository.findById(newZoneId).orElse(null) : null;
-      if (newZoneInstance != null) {
-        newZoneInstance.addItemId(itemId);
-        zoneInstanceRepository.save(newZoneInstance);
-      }
-      logger.info(
-          "Moved item ID {} from zone instance {} to zone instance {}",
-          itemId,
-          oldZoneId,
-          newZoneId);
-    }
+    logger.info("Received request to move {} items between zone instances", requests.size());
+    zoneMembershipService.moveItems(requests);
   }
 }
@@ -0,0 +1,59 @@
+package com.warehousemanager.furnituremanagement.entities;
+
+import com.warehousemanager.furnituremanagement.ZoneInstanceItemId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/** Represents the placement of an item in a zone instance. */
+@Entity
+@Table(
+    name = "zone_instance_items",
+    indexes = @Index(name = "zone_instance_items_item_id_idx", columnList = "item_id"))
+@IdClass(ZoneInstanceItemId.class)
+public class ZoneInstanceItem {
+  /** Unique identifier of the zone instance the item is placed in. */
+  @Id
+  @Column(name = "zone_instance_id", nullable = false, updatable = false)
+  private Long zoneInstanceId;
+
+  /** Unique identifier of the item. */
+  @Id
+  @Column(name = "item_id", nullable = false, updatable = false)
+  private Long itemId;
+
+  /** Default constructor for JPA. */
+  protected ZoneInstanceItem() {}
+
+  /**
+   * Constructs a new ZoneInstanceItem placing the specified item in the specified zone instance.
+   *
+   * @param zoneInstanceId the unique identifier of the zone instance
+   * @param itemId the unique identifier of the item
+   */
+  public ZoneInstanceItem(Long zoneInstanceId, Long itemId) {
+    this.zoneInstanceId = zoneInstanceId;
+    this.itemId = itemId;
+  }
+
+  /**
+   * Gets the unique identifier of the zone instance the item is placed in.
+   *
+   * @return the unique identifier of the zone instance
+   */
+  public Long getZoneInstanceId() {
+    return zoneInstanceId;
+  }
+
+  /**
+   * Gets the unique identifier of the item.
+   *
+   * @return the unique identifier of the item
+   */
+  public Long getItemId() {
+    return itemId;
+  }
+}
@@ -1,10 +1,16 @@
 package com.warehousemanager.furnituremanagement.repositories;
 
 import com.warehousemanager.furnituremanagement.entities.Furniture;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository interface for managing Furniture entities. This interface extends CrudRepository to
@@ -20,11 +26,28 @@ public interface FurnitureRepository extends CrudRepository<Furniture, Long> {
   Long getNextId();
 
   /**
-   * Finds all furniture that is not deleted and is marked as current.
+   * Streams all furniture that is not deleted and is marked as current, ordered by ID. The rows
+   * are fetched from a database cursor in chunks, so the stream must be consumed within a
+   * transaction and closed afterwards.
    *
-   * @return an iterable collection of furniture that is not deleted and current
+   * @return a stream of furniture that is not deleted and current
    */
-  List<Furniture> findByDeletedFalseAndCurrentTrue();
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<Furniture> streamByDeletedFalseAndCurrentTrueOrderByIdAsc();
+
+  /**
+   * Finds a page of furniture that is not deleted and is marked as current, starting after the
+   * given ID.
+   *
+   * @param afterId the ID after which the page starts
+   * @param limit the maximum number of furniture to return
+   * @return the furniture with an ID greater than the given one, ordered by ID
+   */
+  List<Furniture> findByIdGreaterThanAndDeletedFalseAndCurrentTrueOrderByIdAsc(
+      Long afterId, Limit limit);
 
   /**
    * Finds all furniture with the specified IDs that are not deleted and are marked as current.
@@ -50,4 +73,27 @@ public interface FurnitureRepository extends CrudRepository<Furniture, Long> {
    * @return an optional containing the furniture if found, otherwise empty
    */
   Optional<Furniture> findByIdEqualsAndDeletedFalseAndCurrentTrue(Long id);
+
+  /**
+   * Finds all versions of a furniture, both those still in the furniture table and those moved to
+   * the furniture history by the archiver. The zones of archived versions are kept in the zone
+   * history and are not loaded.
+   *
+   * @param id the ID of the furniture
+   * @return all versions of the furniture, newest first
+   */
+  @Query(
+      value =
+          """
+          SELECT id, version, current, deleted, name, shape_ids, top_down_view_id
+          FROM furniture
+          WHERE id = :id
+          UNION ALL
+          SELECT id, version, current, deleted, name, shape_ids, top_down_view_id
+          FROM furniture_history
+          WHERE id = :id
+          ORDER BY version DESC
+          """,
+      nativeQuery = true)
+  List<Furniture> findAllVersionsById(@Param("id") Long id);
 }
@@ -0,0 +1,43 @@
+package com.warehousemanager.furnituremanagement.repositories;
+
+import com.warehousemanager.furnituremanagement.ZoneInstanceItemId;
+import com.warehousemanager.furnituremanagement.entities.ZoneInstanceItem;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository interface for managing ZoneInstanceItem entities. This interface extends
+ * CrudRepository to provide basic CRUD operations.
+ */
+public interface ZoneInstanceItemRepository
+    extends CrudRepository<ZoneInstanceItem, ZoneInstanceItemId> {
+  /**
+   * Finds all item placements in the zone instances with the specified IDs.
+   *
+   * @param zoneInstanceIds the IDs of the zone instances to search for
+   * @return a list of the item placements in the given zone instances
+   */
+  List<ZoneInstanceItem> findByZoneInstanceIdIn(Collection<Long> zoneInstanceIds);
+
+  /**
+   * Finds all placements of the items with the specified IDs.
+   *
+   * @param itemIds the IDs of the items to search for
+   * @return a list of the placements of the given items
+   */
+  List<ZoneInstanceItem> findByItemIdIn(Collection<Long> itemIds);
+
+  /**
+   * Removes the items with the specified IDs from every zone instance they are placed in.
+   *
+   * @param itemIds the IDs of the items to remove
+   * @return the number of removed placements
+   */
+  @Modifying
+  @Query("DELETE FROM ZoneInstanceItem placement WHERE placement.itemId IN :itemIds")
+  int deleteByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+}
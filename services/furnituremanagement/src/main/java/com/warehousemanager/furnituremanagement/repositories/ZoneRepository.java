@@ -1,10 +1,21 @@
 package com.warehousemanager.furnituremanagement.repositories;
 
+import com.warehousemanager.furnituremanagement.entities.Furniture;
 import com.warehousemanager.furnituremanagement.entities.Zone;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.repository.CrudRepository;
 
 /**
  * Repository interface for managing Zone entities. This interface extends CrudRepository to provide
  * basic CRUD operations.
  */
-public interface ZoneRepository extends CrudRepository<Zone, Long> {}
+public interface ZoneRepository extends CrudRepository<Zone, Long> {
+  /**
+   * Finds the zones of all the specified furniture versions.
+   *
+   * @param furniture the furniture versions whose zones are to be found
+   * @return the zones belonging to any of the given furniture versions
+   */
+  List<Zone> findByFurnitureIn(Collection<Furniture> furniture);
+}
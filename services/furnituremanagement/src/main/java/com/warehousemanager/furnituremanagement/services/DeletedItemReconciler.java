@@ -0,0 +1,81 @@
+package com.warehousemanager.furnituremanagement.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes deleted items that a read noticed from the zone instances they were placed in. Deleted
+ * item IDs are queued and removed in bulk in the background, so that reads never write to zone
+ * instances. Deletions reported by the item service are applied directly by the
+ * {@link ItemEventHandler} instead, since the queue is lost when the service stops.
+ */
+@Component
+public class DeletedItemReconciler {
+  private final ZoneMembershipService zoneMembershipService;
+  private final int batchSize;
+  private final Set<Long> pendingItemIds = ConcurrentHashMap.newKeySet();
+  private static final Logger logger = LoggerFactory.getLogger(DeletedItemReconciler.class);
+
+  /**
+   * Constructs a DeletedItemReconciler with the specified settings.
+   *
+   * @param zoneMembershipService the service for removing items from zone instances
+   * @param batchSize the maximum number of items removed by a single statement
+   */
+  public DeletedItemReconciler(
+      ZoneMembershipService zoneMembershipService,
+      @Value("${furniture.reconciliation.batch-size:1000}") int batchSize) {
+    this.zoneMembershipService = zoneMembershipService;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Queues deleted items for removal from their zone instances. Items that are already queued are
+   * only removed once.
+   *
+   * @param itemIds the IDs of the deleted items
+   */
+  public void enqueue(Collection<Long> itemIds) {
+    pendingItemIds.addAll(itemIds);
+  }
+
+  /**
+   * Removes all queued items from their zone instances in batches. Items of a batch that fails are
+   * queued again and retried by the next run.
+   *
+   * @return the number of removed placements
+   */
+  @Scheduled(
+      initialDelayString = "${furniture.reconciliation.interval:PT10S}",
+      fixedDelayString = "${furniture.reconciliation.interval:PT10S}")
+  public int reconcile() {
+    int removed = 0;
+    int reconciled = 0;
+    while (!pendingItemIds.isEmpty()) {
+      List<Long> batch = pendingItemIds.stream().limit(batchSize).toList();
+      pendingItemIds.removeAll(batch);
+      try {
+        removed += zoneMembershipService.removeItems(batch);
+        reconciled += batch.size();
+      } catch (RuntimeException e) {
+        pendingItemIds.addAll(batch);
+        logger.warn("Failed to remove {} deleted items from zone instances", batch.size(), e);
+        break;
+      }
+    }
+    if (reconciled > 0) {
+      logger.info(
+          "Reconciled {} deleted items, {} placements removed from zone instances",
+          reconciled,
+          removed);
+    }
+    return removed;
+  }
+}
@@ -0,0 +1,112 @@
+package com.warehousemanager.furnituremanagement.services;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes independent downstream calls concurrently on virtual threads. The number of calls in
+ * flight is capped across the whole service and every call has to complete within a configured
+ * deadline.
+ */
+@Component
+public class FanOutExecutor implements DisposableBean {
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Semaphore permits;
+  private final Duration callTimeout;
+  private static final Logger logger = LoggerFactory.getLogger(FanOutExecutor.class);
+
+  /**
+   * Constructs a FanOutExecutor with the specified limits.
+   *
+   * @param maxConcurrency the maximum number of downstream calls in flight at the same time
+   * @param callTimeout the deadline for a single downstream call
+   */
+  public FanOutExecutor(
+      @Value("${furniture.fan-out.max-concurrency:16}") int maxConcurrency,
+      @Value("${furniture.fan-out.call-timeout:10s}") Duration callTimeout) {
+    this.permits = new Semaphore(maxConcurrency);
+    this.callTimeout = callTimeout;
+    logger.info(
+        "Fan-out executor created with concurrency cap {} and call timeout {}",
+        maxConcurrency,
+        callTimeout);
+  }
+
+  /**
+   * Submits a downstream call for concurrent execution. Blocks the calling thread while the
+   * concurrency cap is reached, but no longer than the call deadline.
+   *
+   * @param call the downstream call to execute
+   * @param <T> the type of the call result
+   * @return a future completed with the call result, or exceptionally if the deadline passes
+   * @throws IllegalStateException if no slot becomes free within the call deadline
+   */
+  public <T> CompletableFuture<T> submit(Supplier<T> call) {
+    try {
+      if (!permits.tryAcquire(callTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new IllegalStateException(
+            "No slot for a downstream call became free within " + callTimeout);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting to submit a downstream call", e);
+    }
+    try {
+      return CompletableFuture.supplyAsync(
+              () -> {
+                try {
+                  return call.get();
+                } finally {
+                  permits.release();
+                }
+              },
+              executor)
+          .orTimeout(callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Waits for a submitted call and unwraps its failure.
+   *
+   * @param future the future returned by {@link #submit(Supplier)}
+   * @param <T> the type of the call result
+   * @return the call result
+   * @throws IllegalStateException if the call did not complete within the deadline
+   */
+  public <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof TimeoutException) {
+        throw new IllegalStateException(
+            "Downstream call did not complete within " + callTimeout, cause);
+      }
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,214 @@
+package com.warehousemanager.furnituremanagement.services;
+
+import com.warehousemanager.furnituremanagement.FurnitureInstanceCreateDataTransferObject;
+import com.warehousemanager.furnituremanagement.FurnitureInstanceUpdateDataTransferObject;
+import com.warehousemanager.furnituremanagement.ShapeInstance;
+import com.warehousemanager.furnituremanagement.ShapeInstanceCreateObject;
+import com.warehousemanager.furnituremanagement.entities.Furniture;
+import com.warehousemanager.furnituremanagement.entities.FurnitureInstance;
+import com.warehousemanager.furnituremanagement.entities.FurnitureInstanceHistory;
+import com.warehousemanager.furnituremanagement.entities.Zone;
+import com.warehousemanager.furnituremanagement.entities.ZoneInstance;
+import com.warehousemanager.furnituremanagement.repositories.FurnitureInstanceHistoryRepository;
+import com.warehousemanager.furnituremanagement.repositories.FurnitureInstanceRepository;
+import com.warehousemanager.furnituremanagement.repositories.FurnitureRepository;
+import com.warehousemanager.furnituremanagement.repositories.ZoneInstanceRepository;
+import com.warehousemanager.furnituremanagement.repositories.ZoneRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for creating and changing many furniture instances at once. All shape instances are
+ * created with a single request to the shape service and all rows are written with batched
+ * statements.
+ */
+@Service
+public class FurnitureInstanceService {
+  private final FurnitureRepository furnitureRepository;
+  private final ZoneRepository zoneRepository;
+  private final FurnitureInstanceRepository furnitureInstanceRepository;
+  private final FurnitureInstanceHistoryRepository furnitureInstanceHistoryRepository;
+  private final ZoneInstanceRepository zoneInstanceRepository;
+  private final FurnitureService furnitureService;
+  private final ZoneLocationOutbox zoneLocationOutbox;
+  private static final Logger logger = LoggerFactory.getLogger(FurnitureInstanceService.class);
+
+  /**
+   * Constructs a FurnitureInstanceService with the specified dependencies.
+   *
+   * @param furnitureRepository the repository for managing furniture entities
+   * @param zoneRepository the repository for managing zone entities
+   * @param furnitureInstanceRepository the repository for managing furniture instance entities
+   * @param furnitureInstanceHistoryRepository the repository for managing furniture instance
+   *     history entities
+   * @param zoneInstanceRepository the repository for managing zone instance entities
+   * @param furnitureService the service for calling the shape service
+   * @param zoneLocationOutbox the outbox recording the zone instances of moved furniture instances
+   */
+  public FurnitureInstanceService(
+      FurnitureRepository furnitureRepository,
+      ZoneRepository zoneRepository,
+      FurnitureInstanceRepository furnitureInstanceRepository,
+      FurnitureInstanceHistoryRepository furnitureInstanceHistoryRepository,
+      ZoneInstanceRepository zoneInstanceRepository,
+      FurnitureService furnitureService,
+      ZoneLocationOutbox zoneLocationOutbox) {
+    this.furnitureRepository = furnitureRepository;
+    this.zoneRepository = zoneRepository;
+    this.furnitureInstanceRepository = furnitureInstanceRepository;
+    this.furnitureInstanceHistoryRepository = furnitureInstanceHistoryRepository;
+    this.zoneInstanceRepository = zoneInstanceRepository;
+    this.furnitureService = furnitureService;
+    this.zoneLocationOutbox = zoneLocationOutbox;
+  }
+
+  /**
+   * Creates multiple furniture instances together with an instance of every zone of their
+   * furniture. The furniture and its zones are loaded with one query each, all top-down views are
+   * created with one request to the shape service, and the furniture and zone instance rows are
+   * written in JDBC batches.
+   *
+   * @param furnitureDataTransferObjects the furniture instances to create
+   * @return the created furniture instances, in the requested order
+   * @throws RuntimeException if a furniture does not exist
+   */
+  @Transactional
+  public List<FurnitureInstance> createFurnitureInstances(
+      List<FurnitureInstanceCreateDataTransferObject> furnitureDataTransferObjects) {
+    if (furnitureDataTransferObjects.isEmpty()) {
+      return List.of();
+    }
+    List<Long> furnitureIds =
+        furnitureDataTransferObjects.stream()
+            .map(FurnitureInstanceCreateDataTransferObject::furnitureId)
+            .distinct()
+            .toList();
+    Map<Long, Furniture> furniture = new HashMap<>();
+    for (Furniture current :
+        furnitureRepository.findByIdInAndDeletedFalseAndCurrentTrue(furnitureIds)) {
+      furniture.put(current.getId(), current);
+    }
+    List<Long> missingFurnitureIds =
+        furnitureIds.stream().filter(id -> !furniture.containsKey(id)).toList();
+    if (!missingFurnitureIds.isEmpty()) {
+      throw new RuntimeException("Furniture not found with IDs: " + missingFurnitureIds);
+    }
+    Map<Long, List<Zone>> zones = new HashMap<>();
+    for (Zone zone : zoneRepository.findByFurnitureIn(furniture.values())) {
+      zones.computeIfAbsent(zone.getFurniture().getId(), id -> new ArrayList<>()).add(zone);
+    }
+
+    List<ShapeInstanceCreateObject> shapes =
+        furnitureDataTransferObjects.stream()
+            .map(
+                furnitureDataTransferObject ->
+                    new ShapeInstanceCreateObject(
+                        furnitureDataTransferObject.shapeId(),
+                        null,
+                        furnitureDataTransferObject.instructions()))
+            .toList();
+    List<ShapeInstance> topDownViewInstances = furnitureService.createShapeInstances(shapes);
+
+    List<FurnitureInstance> furnitureInstances = new ArrayList<>();
+    for (int i = 0; i < furnitureDataTransferObjects.size(); i++) {
+      furnitureInstances.add(
+          new FurnitureInstance(
+              furniture.get(furnitureDataTransferObjects.get(i).furnitureId()),
+              topDownViewInstances.get(i).id()));
+    }
+    furnitureInstanceRepository.saveAll(furnitureInstances);
+
+    List<ZoneInstance> zoneInstances = new ArrayList<>();
+    for (FurnitureInstance furnitureInstance : furnitureInstances) {
+      List<ZoneInstance> instanceZones = new ArrayList<>();
+      for (Zone zone : zones.getOrDefault(furnitureInstance.getFurniture().getId(), List.of())) {
+        instanceZones.add(new ZoneInstance(zone, furnitureInstance));
+      }
+      furnitureInstance.setZoneInstances(instanceZones);
+      zoneInstances.addAll(instanceZones);
+    }
+    zoneInstanceRepository.saveAll(zoneInstances);
+
+    logger.info(
+        "Created {} furniture instances with {} zone instances",
+        furnitureInstances.size(),
+        zoneInstances.size());
+    return furnitureInstances;
+  }
+
+  /**
+   * Updates the top-down views of multiple furniture instances. The previous state of every
+   * instance is recorded in its history, the new top-down views are created with one request to
+   * the shape service, and the history and instance rows are written in JDBC batches. The zone
+   * instances of the updated instances are recorded in the {@link ZoneLocationOutbox} in the same
+   * transaction, so that the item service learns where their items are now. If an instance is
+   * listed more than once, the last update for it applies.
+   *
+   * @param updates the updates to apply
+   * @return the updated furniture instances, in the order they were first listed
+   * @throws RuntimeException if a furniture instance does not exist
+   */
+  @Transactional
+  public List<FurnitureInstance> updateFurnitureInstances(
+      List<FurnitureInstanceUpdateDataTransferObject> updates) {
+    Map<Long, FurnitureInstanceUpdateDataTransferObject> updatesById = new LinkedHashMap<>();
+    for (FurnitureInstanceUpdateDataTransferObject update : updates) {
+      updatesById.put(update.furnitureInstanceId(), update);
+    }
+    if (updatesById.isEmpty()) {
+      return List.of();
+    }
+
+    Map<Long, FurnitureInstance> furnitureInstances = new HashMap<>();
+    for (FurnitureInstance furnitureInstance :
+        furnitureInstanceRepository.findAllById(updatesById.keySet())) {
+      furnitureInstances.put(furnitureInstance.getId(), furnitureInstance);
+    }
+    List<Long> missingIds =
+        updatesById.keySet().stream().filter(id -> !furnitureInstances.containsKey(id)).toList();
+    if (!missingIds.isEmpty()) {
+      throw new RuntimeException("Furniture instances not found with IDs: " + missingIds);
+    }
+
+    List<ShapeInstanceCreateObject> shapes =
+        updatesById.values().stream()
+            .map(
+                update ->
+                    new ShapeInstanceCreateObject(
+                        update.shapeId(), update.shapeVersion(), update.instructions()))
+            .toList();
+    List<ShapeInstance> topDownViewInstances = furnitureService.createShapeInstances(shapes);
+
+    Instant version = Instant.now();
+    List<FurnitureInstanceHistory> historyRecords = new ArrayList<>();
+    List<FurnitureInstance> updatedInstances = new ArrayList<>();
+    List<Long> zoneInstanceIds = new ArrayList<>();
+    int index = 0;
+    for (Long furnitureInstanceId : updatesById.keySet()) {
+      FurnitureInstance furnitureInstance = furnitureInstances.get(furnitureInstanceId);
+      historyRecords.add(new FurnitureInstanceHistory(furnitureInstance));
+      furnitureInstance.setVersion(version);
+      furnitureInstance.setTopDownViewId(topDownViewInstances.get(index++).id());
+      updatedInstances.add(furnitureInstance);
+      if (furnitureInstance.getZoneInstances() != null) {
+        for (ZoneInstance zoneInstance : furnitureInstance.getZoneInstances()) {
+          zoneInstanceIds.add(zoneInstance.getId());
+        }
+      }
+    }
+    furnitureInstanceHistoryRepository.saveAll(historyRecords);
+    furnitureInstanceRepository.saveAll(updatedInstances);
+    zoneLocationOutbox.recordMoved(zoneInstanceIds);
+
+    logger.info("Updated {} furniture instances", updatedInstances.size());
+    return updatedInstances;
+  }
+}
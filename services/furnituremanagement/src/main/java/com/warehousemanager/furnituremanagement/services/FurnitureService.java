@@ -1,18 +1,25 @@
 package com.warehousemanager.furnituremanagement.services;
 
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
 import com.warehousemanager.furnituremanagement.FurnitureResponseDataTransferObject;
+import com.warehousemanager.furnituremanagement.ItemResponseDataTransferObject;
 import com.warehousemanager.furnituremanagement.ShapeInstance;
+import com.warehousemanager.furnituremanagement.ShapeInstanceCreateObject;
 import com.warehousemanager.furnituremanagement.ShapeType;
 import com.warehousemanager.furnituremanagement.ZoneResponseDataTransferObject;
 import com.warehousemanager.furnituremanagement.entities.Furniture;
 import com.warehousemanager.furnituremanagement.entities.Zone;
 import com.warehousemanager.furnituremanagement.repositories.FurnitureRepository;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
@@ -22,60 +29,141 @@ import org.springframework.web.client.RestClient;
 public class FurnitureService {
   // Repository for managing Furniture entities
   private final FurnitureRepository furnitureRepository;
-  private final DiscoveryClient discoveryClient;
   private final RestClient restClient;
+  private final ShapeCache shapeCache;
   private static final Logger logger = LoggerFactory.getLogger(FurnitureService.class);
-  private static final String SHAPE_SERVICE_NAME = "shape-management";
+  private static final String SHAPE_SERVICE_URL = "http://shape-management";
   private static final String SHAPE_BASE_URL = "/shapes/";
-  private static final String SHAPE_INSTANCE_ENDPOINT = "/instance";
+  private static final String SHAPE_INSTANCES_BATCH_ENDPOINT = "instances/batch/query";
+  private static final String SHAPE_INSTANCES_CREATE_ENDPOINT = "instances/batch";
 
   /**
    * Constructor for FurnitureService.
    *
    * @param furnitureRepository the repository for managing Furniture entities
-   * @param discoveryClient the DiscoveryClient for service discovery
    * @param restClientBuilder the RestClient builder for making REST calls
+   * @param shapeCache the cache for shapes retrieved from the shape service
    */
   public FurnitureService(
       FurnitureRepository furnitureRepository,
-      DiscoveryClient discoveryClient,
-      RestClient.Builder restClientBuilder) {
+      RestClient.Builder restClientBuilder,
+      ShapeCache shapeCache) {
     this.furnitureRepository = furnitureRepository;
-    this.discoveryClient = discoveryClient;
     this.restClient = restClientBuilder.build();
+    this.shapeCache = shapeCache;
   }
 
   /**
-   * Retrieves a ShapeInstance by its ID from the shape service.
+   * Retrieves multiple ShapeInstances by their IDs. Shape instances missing from the shape cache
+   * are retrieved from the shape service with a single request.
    *
-   * @param shapeId the ID of the shape instance to retrieve
+   * @param shapeInstanceIds the IDs of the shape instances to retrieve
    * @param baseUrl the base URL of the shape service
-   * @return the ShapeInstance object
+   * @return a map of shape instance IDs to the retrieved ShapeInstance objects
+   */
+  public Map<Long, ShapeInstance> getShapeInstances(
+      Collection<Long> shapeInstanceIds, String baseUrl) {
+    Map<Long, ShapeInstance> shapeInstances =
+        new HashMap<>(shapeCache.getShapeInstances(shapeInstanceIds));
+    List<Long> missingIds =
+        shapeInstanceIds.stream()
+            .filter(id -> !shapeInstances.containsKey(id))
+            .distinct()
+            .toList();
+    if (missingIds.isEmpty()) {
+      return shapeInstances;
+    }
+    List<ShapeInstance> response =
+        restClient
+            .post()
+            .uri(baseUrl + SHAPE_INSTANCES_BATCH_ENDPOINT)
+            .contentType(APPLICATION_JSON)
+            .body(missingIds)
+            .retrieve()
+            .body(new ParameterizedTypeReference<List<ShapeInstance>>() {});
+    for (ShapeInstance shapeInstance : response) {
+      shapeInstances.put(shapeInstance.id(), shapeInstance);
+      shapeCache.putShapeInstance(shapeInstance);
+    }
+    logger.info(
+        "Shape instances retrieved: {}, of which {} from the shape service",
+        shapeInstances.size(),
+        response.size());
+    return shapeInstances;
+  }
+
+  /**
+   * Creates multiple shape instances with a single request to the shape service. The created
+   * shape instances are cached right away.
+   *
+   * @param shapes the shape instances to create
+   * @return the created shape instances, in the same order as the requested ones
+   */
+  public List<ShapeInstance> createShapeInstances(List<ShapeInstanceCreateObject> shapes) {
+    if (shapes.isEmpty()) {
+      return List.of();
+    }
+    List<ShapeInstance> shapeInstances =
+        restClient
+            .post()
+            .uri(SHAPE_SERVICE_URL + SHAPE_BASE_URL + SHAPE_INSTANCES_CREATE_ENDPOINT)
+            .contentType(APPLICATION_JSON)
+            .body(shapes)
+            .retrieve()
+            .body(new ParameterizedTypeReference<List<ShapeInstance>>() {});
+    if (shapeInstances == null || shapeInstances.size() != shapes.size()) {
+      throw new IllegalStateException(
+          "Shape service created "
+              + (shapeInstances == null ? 0 : shapeInstances.size())
+              + " shape instances, expected "
+              + shapes.size());
+    }
+    for (ShapeInstance shapeInstance : shapeInstances) {
+      shapeCache.putShapeInstance(shapeInstance);
+    }
+    logger.info("Shape instances created: {}", shapeInstances.size());
+    return shapeInstances;
+  }
+
+  /**
+   * Retrieves multiple items by their IDs from the item service with a single request.
+   *
+   * @param itemIds the IDs of the items to retrieve
+   * @param itemsUrl the URL of the item service batch query endpoint
+   * @return the retrieved items keyed by their IDs
    */
-  public ShapeInstance getShapeInstance(Long shapeId, String baseUrl) {
+  public Map<Long, ItemResponseDataTransferObject> getItems(
+      Collection<Long> itemIds, String itemsUrl) {
+    if (itemIds.isEmpty()) {
+      return Map.of();
+    }
     return restClient
-        .get()
-        .uri(baseUrl + shapeId + SHAPE_INSTANCE_ENDPOINT)
+        .post()
+        .uri(itemsUrl)
+        .contentType(APPLICATION_JSON)
+        .body(itemIds)
         .retrieve()
-        .body(new ParameterizedTypeReference<ShapeInstance>() {});
+        .body(new ParameterizedTypeReference<Map<Long, ItemResponseDataTransferObject>>() {});
   }
 
   /**
-   * Retrieves shape instances associated with the given furniture.
+   * Collects the IDs of all shape instances needed to convert the given furniture, that is the
+   * shapes the furniture is built from and the shapes of its zones.
    *
-   * @param furniture the furniture whose shape instances are to be retrieved
-   * @param baseShapeUrl the base URL for the shape service
-   * @return a list of ShapeInstance objects associated with the furniture
+   * @param furniture the furniture whose shape instance IDs are to be collected
+   * @return a mutable set of shape instance IDs, in the order they appear on the furniture
    */
-  private List<ShapeInstance> getShapeInstances(Furniture furniture, String baseShapeUrl) {
-    List<ShapeInstance> shapeInstances = new ArrayList<>();
-    for (Long shapeId : furniture.getShapeIds()) {
-      ShapeInstance shapeInstance = getShapeInstance(shapeId, baseShapeUrl);
-
-      shapeInstances.add(shapeInstance);
+  public Set<Long> collectShapeInstanceIds(Furniture furniture) {
+    Set<Long> shapeInstanceIds = new LinkedHashSet<>();
+    if (furniture.getShapeIds() != null) {
+      shapeInstanceIds.addAll(furniture.getShapeIds());
     }
-    logger.info("Shape instances retrieved: {}", shapeInstances);
-    return shapeInstances;
+    if (furniture.getZones() != null) {
+      for (Zone zone : furniture.getZones()) {
+        shapeInstanceIds.add(zone.getShapeId());
+      }
+    }
+    return shapeInstanceIds;
   }
 
   /**
@@ -85,87 +173,102 @@ public class FurnitureService {
    * @param baseShapeUrl the base URL for the shape service
    * @return the ShapeType object representing the top-down view of the furniture
    */
-  private ShapeType getTopDownViewShape(Furniture furniture, String baseShapeUrl) {
-    ShapeType topDownView =
+  public ShapeType getTopDownViewShape(Furniture furniture, String baseShapeUrl) {
+    return getShapeTemplate(furniture.getTopDownViewId(), baseShapeUrl);
+  }
+
+  /**
+   * Retrieves a shape template by its ID, from the shape cache if possible and from the shape
+   * service otherwise.
+   *
+   * @param shapeId the ID of the shape template to retrieve
+   * @param baseShapeUrl the base URL for the shape service
+   * @return the ShapeType object representing the shape template
+   */
+  public ShapeType getShapeTemplate(Long shapeId, String baseShapeUrl) {
+    ShapeType shapeTemplate = shapeCache.getShapeTemplate(shapeId);
+    if (shapeTemplate != null) {
+      return shapeTemplate;
+    }
+    shapeTemplate =
         restClient
             .get()
-            .uri(baseShapeUrl + furniture.getTopDownViewId())
+            .uri(baseShapeUrl + shapeId)
             .retrieve()
             .body(new ParameterizedTypeReference<ShapeType>() {});
-    logger.info("Top-down view shape template retrieved: {}", topDownView);
-    return topDownView;
+    shapeCache.putShapeTemplate(shapeId, shapeTemplate);
+    logger.info("Shape template retrieved: {}", shapeTemplate);
+    return shapeTemplate;
   }
 
   /**
    * Converts a Zone entity to a ZoneResponseDataTransferObject.
    *
    * @param zone the Zone entity to convert
-   * @param baseUrl the base URL for the shape service
+   * @param shapeInstances the already retrieved shape instances, keyed by their IDs
    * @return the corresponding ZoneResponseDataTransferObject
    */
-  public ZoneResponseDataTransferObject convertZoneToDto(Zone zone, String baseUrl) {
-    Long shapeId = zone.getShapeId();
-    ShapeInstance zoneShape = getShapeInstance(shapeId, baseUrl);
-    ZoneResponseDataTransferObject zoneResponse =
-        new ZoneResponseDataTransferObject(zone.getId(), zone.getName(), zoneShape);
-    return zoneResponse;
+  public ZoneResponseDataTransferObject convertZoneToDto(
+      Zone zone, Map<Long, ShapeInstance> shapeInstances) {
+    ShapeInstance zoneShape = shapeInstances.get(zone.getShapeId());
+    return new ZoneResponseDataTransferObject(zone.getId(), zone.getName(), zoneShape);
   }
 
   /**
-   * Converts a list of Zone entities to a list of ZoneResponseDataTransferObjects.
+   * Converts a Furniture entity to a FurnitureResponseDataTransferObject.
    *
-   * @param zones the list of Zone entities to convert
-   * @param baseUrl the base URL for the shape service
-   * @return a list of corresponding ZoneResponseDataTransferObjects
+   * @param furniture the Furniture entity to convert
+   * @return the corresponding FurnitureResponseDataTransferObject
    */
-  private List<ZoneResponseDataTransferObject> getZonesDto(List<Zone> zones, String baseUrl) {
-    List<ZoneResponseDataTransferObject> zoneDtos = new ArrayList<>();
-    for (Zone zone : zones) {
-      ZoneResponseDataTransferObject zoneDto = convertZoneToDto(zone, baseUrl);
-      zoneDtos.add(zoneDto);
-    }
-    logger.info("Zone DTOs created: {}", zoneDtos);
-    return zoneDtos;
+  public FurnitureResponseDataTransferObject convertToDto(Furniture furniture) {
+    return convertToDto(furniture, SHAPE_SERVICE_URL + SHAPE_BASE_URL);
   }
 
   /**
-   * Converts a Furniture entity to a FurnitureResponseDataTransferObject.
+   * Converts a Furniture entity to a FurnitureResponseDataTransferObject. All shape instances of
+   * the furniture and its zones are retrieved with a single request.
    *
    * @param furniture the Furniture entity to convert
+   * @param baseUrl the base URL for the shape service
    * @return the corresponding FurnitureResponseDataTransferObject
    */
-  public FurnitureResponseDataTransferObject convertToDto(Furniture furniture) {
-    ServiceInstance serviceInstance = discoveryClient.getInstances(SHAPE_SERVICE_NAME).get(0);
-    String baseUrl = serviceInstance.getUri() + SHAPE_BASE_URL;
-    List<ShapeInstance> shapeInstances = getShapeInstances(furniture, baseUrl);
+  public FurnitureResponseDataTransferObject convertToDto(Furniture furniture, String baseUrl) {
+    Map<Long, ShapeInstance> shapeInstances =
+        getShapeInstances(collectShapeInstanceIds(furniture), baseUrl);
     ShapeType topDownView = getTopDownViewShape(furniture, baseUrl);
-    List<ZoneResponseDataTransferObject> zoneDtos = getZonesDto(furniture.getZones(), baseUrl);
-    return new FurnitureResponseDataTransferObject(
-        furniture.getId(),
-        furniture.getVersion(),
-        furniture.getName(),
-        topDownView,
-        shapeInstances,
-        zoneDtos);
+    return convertToDto(furniture, shapeInstances, topDownView);
   }
 
   /**
-   * Converts a Furniture entity to a FurnitureResponseDataTransferObject.
+   * Converts a Furniture entity to a FurnitureResponseDataTransferObject using shape instances
+   * that were already retrieved. The map must contain every ID returned by {@link
+   * #collectShapeInstanceIds(Furniture)} for the given furniture.
    *
    * @param furniture the Furniture entity to convert
-   * @param baseUrl the base URL for the shape service
+   * @param shapeInstances the already retrieved shape instances, keyed by their IDs
+   * @param topDownView the top-down view shape of the furniture
    * @return the corresponding FurnitureResponseDataTransferObject
    */
-  public FurnitureResponseDataTransferObject convertToDto(Furniture furniture, String baseUrl) {
-    List<ShapeInstance> shapeInstances = getShapeInstances(furniture, baseUrl);
-    ShapeType topDownView = getTopDownViewShape(furniture, baseUrl);
-    List<ZoneResponseDataTransferObject> zoneDtos = getZonesDto(furniture.getZones(), baseUrl);
+  public FurnitureResponseDataTransferObject convertToDto(
+      Furniture furniture, Map<Long, ShapeInstance> shapeInstances, ShapeType topDownView) {
+    List<ShapeInstance> furnitureShapes = new ArrayList<>();
+    if (furniture.getShapeIds() != null) {
+      for (Long shapeId : furniture.getShapeIds()) {
+        furnitureShapes.add(shapeInstances.get(shapeId));
+      }
+    }
+    List<ZoneResponseDataTransferObject> zoneDtos = new ArrayList<>();
+    if (furniture.getZones() != null) {
+      for (Zone zone : furniture.getZones()) {
+        zoneDtos.add(convertZoneToDto(zone, shapeInstances));
+      }
+    }
     return new FurnitureResponseDataTransferObject(
         furniture.getId(),
         furniture.getVersion(),
         furniture.getName(),
         topDownView,
-        shapeInstances,
+        furnitureShapes,
         zoneDtos);
   }
 }
@@ -0,0 +1,85 @@
+package com.warehousemanager.furnituremanagement.services;
+
+import com.warehousemanager.furnituremanagement.ItemEvent;
+import com.warehousemanager.furnituremanagement.MoveItemRequest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Applies the item events delivered by the item service. Events may be delivered more than once,
+ * so applying them is idempotent: moves only remove and add the affected placements, and deleted
+ * items are removed from every zone instance they are still placed in. The zone instances items
+ * were moved into are recorded in the {@link ZoneLocationOutbox}, so that the item service learns
+ * the furniture instance and position of the moved items.
+ */
+@Service
+public class ItemEventHandler {
+  private final ZoneMembershipService zoneMembershipService;
+  private final ZoneLocationOutbox zoneLocationOutbox;
+  private static final Logger logger = LoggerFactory.getLogger(ItemEventHandler.class);
+
+  /**
+   * Constructs an ItemEventHandler with the specified dependencies.
+   *
+   * @param zoneMembershipService the service for changing which items are placed in which zones
+   * @param zoneLocationOutbox the outbox recording the zone instances items were moved into
+   */
+  public ItemEventHandler(
+      ZoneMembershipService zoneMembershipService, ZoneLocationOutbox zoneLocationOutbox) {
+    this.zoneMembershipService = zoneMembershipService;
+    this.zoneLocationOutbox = zoneLocationOutbox;
+  }
+
+  /**
+   * Applies a batch of item events in their order. Consecutive moves of the same item are merged
+   * into one move from its first old zone instance to its last new zone instance, so all moves are
+   * applied with a single call, and all deleted items are removed with a single statement. The
+   * whole batch is applied in one transaction, so a batch that fails is left for the item service
+   * to deliver again.
+   *
+   * @param events the events, ordered by their IDs
+   */
+  @Transactional
+  public void apply(List<ItemEvent> events) {
+    Map<Long, MoveItemRequest> moves = new LinkedHashMap<>();
+    List<Long> deletedItemIds = new ArrayList<>();
+    for (ItemEvent event : events) {
+      switch (event.type()) {
+        case MOVED -> {
+          MoveItemRequest previous = moves.get(event.itemId());
+          Long oldZoneId = previous == null ? event.oldZoneId() : previous.oldZoneId();
+          moves.put(
+              event.itemId(), new MoveItemRequest(event.itemId(), oldZoneId, event.newZoneId()));
+        }
+        case DELETED -> deletedItemIds.add(event.itemId());
+        case CREATED -> {
+          // New items are not placed in any zone instance yet
+        }
+      }
+    }
+    if (!moves.isEmpty()) {
+      zoneMembershipService.moveItems(List.copyOf(moves.values()));
+      Set<Long> newZoneIds = new LinkedHashSet<>();
+      for (MoveItemRequest move : moves.values()) {
+        if (move.newZoneId() != null) {
+          newZoneIds.add(move.newZoneId());
+        }
+      }
+      zoneLocationOutbox.recordMoved(newZoneIds);
+    }
+    zoneMembershipService.removeItems(deletedItemIds);
+    logger.info(
+        "Applied {} item events, {} moved and {} deleted items",
+        events.size(),
+        moves.size(),
+        deletedItemIds.size());
+  }
+}
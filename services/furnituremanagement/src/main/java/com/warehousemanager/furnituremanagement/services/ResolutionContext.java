@@ -0,0 +1,184 @@
+package com.warehousemanager.furnituremanagement.services;
+
+import com.warehousemanager.furnituremanagement.ItemResponseDataTransferObject;
+import com.warehousemanager.furnituremanagement.ShapeInstance;
+import com.warehousemanager.furnituremanagement.ShapeType;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Request-scoped context that deduplicates the downstream lookups needed to build a batch of
+ * furniture instance responses. Lookups are first requested, then resolved together with as few
+ * downstream calls as possible, and finally read back while assembling the responses. Every
+ * request that is answered by an earlier request of the same ID is counted as a hit.
+ */
+public class ResolutionContext {
+  private final FurnitureService furnitureService;
+  private final FanOutExecutor fanOutExecutor;
+  private final String shapesUrl;
+  private final String itemsUrl;
+
+  private final Set<Long> requestedShapeInstanceIds = new LinkedHashSet<>();
+  private final Set<Long> requestedTemplateIds = new LinkedHashSet<>();
+  private final Set<Long> requestedItemIds = new LinkedHashSet<>();
+  private final Counter shapeInstanceCounter = new Counter();
+  private final Counter templateCounter = new Counter();
+  private final Counter itemCounter = new Counter();
+
+  private Map<Long, ShapeInstance> shapeInstances = Map.of();
+  private final Map<Long, ShapeType> templates = new HashMap<>();
+  private Map<Long, ItemResponseDataTransferObject> items = Map.of();
+
+  /**
+   * Constructs a ResolutionContext for a single request.
+   *
+   * @param furnitureService the service used to call the shape and item services
+   * @param fanOutExecutor the executor used to issue the downstream calls concurrently
+   * @param shapesUrl the base URL of the shape service
+   * @param itemsUrl the URL of the item service batch endpoint
+   */
+  public ResolutionContext(
+      FurnitureService furnitureService,
+      FanOutExecutor fanOutExecutor,
+      String shapesUrl,
+      String itemsUrl) {
+    this.furnitureService = furnitureService;
+    this.fanOutExecutor = fanOutExecutor;
+    this.shapesUrl = shapesUrl;
+    this.itemsUrl = itemsUrl;
+  }
+
+  /**
+   * Requests the shape instances with the given IDs.
+   *
+   * @param shapeInstanceIds the IDs of the shape instances
+   */
+  public void requestShapeInstances(Collection<Long> shapeInstanceIds) {
+    for (Long shapeInstanceId : shapeInstanceIds) {
+      shapeInstanceCounter.record(requestedShapeInstanceIds.add(shapeInstanceId));
+    }
+  }
+
+  /**
+   * Requests the shape template with the given ID.
+   *
+   * @param templateId the ID of the shape template
+   */
+  public void requestTemplate(Long templateId) {
+    templateCounter.record(requestedTemplateIds.add(templateId));
+  }
+
+  /**
+   * Requests the items with the given IDs.
+   *
+   * @param itemIds the IDs of the items
+   */
+  public void requestItems(Collection<Long> itemIds) {
+    for (Long itemId : itemIds) {
+      itemCounter.record(requestedItemIds.add(itemId));
+    }
+  }
+
+  /**
+   * Resolves everything requested so far. All shape instances and all items are retrieved with a
+   * single request each, templates with one request per distinct template, all of them issued
+   * concurrently.
+   */
+  public void resolve() {
+    List<Long> shapeInstanceIds = List.copyOf(requestedShapeInstanceIds);
+    List<Long> itemIds = List.copyOf(requestedItemIds);
+    CompletableFuture<Map<Long, ShapeInstance>> shapeInstancesFuture =
+        fanOutExecutor.submit(
+            () -> furnitureService.getShapeInstances(shapeInstanceIds, shapesUrl));
+    CompletableFuture<Map<Long, ItemResponseDataTransferObject>> itemsFuture =
+        fanOutExecutor.submit(() -> furnitureService.getItems(itemIds, itemsUrl));
+    Map<Long, CompletableFuture<ShapeType>> templateFutures = new HashMap<>();
+    for (Long templateId : requestedTemplateIds) {
+      templateFutures.put(
+          templateId,
+          fanOutExecutor.submit(() -> furnitureService.getShapeTemplate(templateId, shapesUrl)));
+    }
+
+    shapeInstances = fanOutExecutor.await(shapeInstancesFuture);
+    items = fanOutExecutor.await(itemsFuture);
+    for (Map.Entry<Long, CompletableFuture<ShapeType>> entry : templateFutures.entrySet()) {
+      templates.put(entry.getKey(), fanOutExecutor.await(entry.getValue()));
+    }
+  }
+
+  /**
+   * Returns the resolved shape instances keyed by their IDs.
+   *
+   * @return the resolved shape instances
+   */
+  public Map<Long, ShapeInstance> getShapeInstances() {
+    return shapeInstances;
+  }
+
+  /**
+   * Returns a resolved shape template.
+   *
+   * @param templateId the ID of the shape template
+   * @return the resolved shape template, or null if it was not requested
+   */
+  public ShapeType getTemplate(Long templateId) {
+    return templates.get(templateId);
+  }
+
+  /**
+   * Returns the resolved items with the given IDs. Items the item service did not return are left
+   * out.
+   *
+   * @param itemIds the IDs of the items
+   * @return the items keyed by their IDs, in the order of the given IDs
+   */
+  public Map<Long, ItemResponseDataTransferObject> getItems(Collection<Long> itemIds) {
+    Map<Long, ItemResponseDataTransferObject> result = new LinkedHashMap<>();
+    for (Long itemId : itemIds) {
+      ItemResponseDataTransferObject item = items.get(itemId);
+      if (item != null) {
+        result.put(itemId, item);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Describes the hits and misses of every kind of lookup.
+   *
+   * @return the lookup statistics, e.g. {@code shapeInstances;hits=3;misses=5, ...}
+   */
+  public String describeStatistics() {
+    return "shapeInstances"
+        + shapeInstanceCounter
+        + ", templates"
+        + templateCounter
+        + ", items"
+        + itemCounter;
+  }
+
+  /** Counts lookups answered by an earlier lookup and lookups that needed a downstream call. */
+  private static class Counter {
+    private long hits;
+    private long misses;
+
+    private void record(boolean miss) {
+      if (miss) {
+        misses++;
+      } else {
+        hits++;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return ";hits=" + hits + ";misses=" + misses;
+    }
+  }
+}
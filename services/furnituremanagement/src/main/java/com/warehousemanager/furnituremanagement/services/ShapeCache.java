@@ -0,0 +1,173 @@
+package com.warehousemanager.furnituremanagement.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.warehousemanager.furnituremanagement.Instruction;
+import com.warehousemanager.furnituremanagement.ShapeInstance;
+import com.warehousemanager.furnituremanagement.ShapeType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Process-wide cache of shapes retrieved from the shape service. The instructions and shape
+ * version of a shape instance never change after it is created, so they are kept until evicted by
+ * size. The shape an instance belongs to can be renamed or deleted, so it is kept in the template
+ * cache, which expires shortly after a shape is retrieved. A cached shape instance is only returned
+ * while its shape is cached as well.
+ */
+@Component
+public class ShapeCache {
+  private final Cache<Long, CachedShapeInstance> shapeInstances;
+  private final Cache<Long, ShapeType> shapeTemplates;
+
+  /**
+   * Constructs a ShapeCache with the specified limits and registers its statistics.
+   *
+   * @param meterRegistry the registry the cache statistics are exported to
+   * @param maxInstructions the maximum total number of instructions of the cached shape instances
+   * @param maxTemplates the maximum number of cached shape templates
+   * @param templateTimeToLive how long a shape template is cached after it is retrieved
+   */
+  public ShapeCache(
+      MeterRegistry meterRegistry,
+      @Value("${furniture.shape-cache.max-instructions:1000000}") long maxInstructions,
+      @Value("${furniture.shape-cache.max-templates:10000}") long maxTemplates,
+      @Value("${furniture.shape-cache.template-ttl:30s}") Duration templateTimeToLive) {
+    this.shapeInstances =
+        Caffeine.newBuilder()
+            .maximumWeight(maxInstructions)
+            .weigher(ShapeCache::weigh)
+            .recordStats()
+            .build();
+    this.shapeTemplates =
+        Caffeine.newBuilder()
+            .maximumSize(maxTemplates)
+            .expireAfterWrite(templateTimeToLive)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, shapeInstances, "shapeInstances");
+    CaffeineCacheMetrics.monitor(meterRegistry, shapeTemplates, "shapeTemplates");
+  }
+
+  /**
+   * Weighs a shape instance by the number of its instructions, which dominate its size.
+   *
+   * @param id the ID of the shape instance
+   * @param shapeInstance the shape instance
+   * @return the weight of the shape instance
+   */
+  private static int weigh(Long id, CachedShapeInstance shapeInstance) {
+    return 1 + (shapeInstance.instructions() == null ? 0 : shapeInstance.instructions().size());
+  }
+
+  /**
+   * Returns the cached shape instances among the given IDs. Shape instances whose shape is no
+   * longer cached are left out, so that they are retrieved again together with the current shape.
+   *
+   * @param shapeInstanceIds the IDs of the shape instances
+   * @return the cached shape instances keyed by their IDs
+   */
+  public Map<Long, ShapeInstance> getShapeInstances(Collection<Long> shapeInstanceIds) {
+    Map<Long, ShapeInstance> result = new HashMap<>();
+    for (CachedShapeInstance cachedShapeInstance :
+        shapeInstances.getAllPresent(shapeInstanceIds).values()) {
+      ShapeInstance shapeInstance = withCurrentShape(cachedShapeInstance);
+      if (shapeInstance != null) {
+        result.put(shapeInstance.id(), shapeInstance);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Caches a shape instance. Only its immutable fields are kept with the instance, its shape is
+   * cached as a shape template.
+   *
+   * @param shapeInstance the shape instance to cache
+   */
+  public void putShapeInstance(ShapeInstance shapeInstance) {
+    if (shapeInstance == null || shapeInstance.id() == null) {
+      return;
+    }
+    ShapeType shape = shapeInstance.shape();
+    shapeInstances.put(
+        shapeInstance.id(),
+        new CachedShapeInstance(
+            shapeInstance.id(),
+            shape == null ? null : shape.id(),
+            shapeInstance.shapeVersion(),
+            shapeInstance.instructions(),
+            shapeInstance.template()));
+    if (shape != null) {
+      putShapeTemplate(shape.id(), shape);
+    }
+  }
+
+  /**
+   * Combines a cached shape instance with the cached current version of its shape.
+   *
+   * @param cachedShapeInstance the cached shape instance
+   * @return the shape instance, or null if its shape is not cached
+   */
+  private ShapeInstance withCurrentShape(CachedShapeInstance cachedShapeInstance) {
+    ShapeType shape = null;
+    if (cachedShapeInstance.shapeId() != null) {
+      shape = shapeTemplates.getIfPresent(cachedShapeInstance.shapeId());
+      if (shape == null) {
+        return null;
+      }
+    }
+    return new ShapeInstance(
+        cachedShapeInstance.id(),
+        cachedShapeInstance.shapeVersion(),
+        shape,
+        cachedShapeInstance.instructions(),
+        cachedShapeInstance.template());
+  }
+
+  /**
+   * Returns a cached shape template.
+   *
+   * @param shapeId the ID of the shape template
+   * @return the cached shape template, or null if it is not cached or has expired
+   */
+  public ShapeType getShapeTemplate(Long shapeId) {
+    return shapeTemplates.getIfPresent(shapeId);
+  }
+
+  /**
+   * Caches a shape template.
+   *
+   * @param shapeId the ID of the shape template
+   * @param shapeTemplate the shape template to cache
+   */
+  public void putShapeTemplate(Long shapeId, ShapeType shapeTemplate) {
+    if (shapeTemplate != null) {
+      shapeTemplates.put(shapeId, shapeTemplate);
+    }
+  }
+
+  /**
+   * The immutable fields of a shape instance, as kept in the cache.
+   *
+   * @param id the ID of the shape instance
+   * @param shapeId the ID of the shape the instance belongs to, null if the shape was deleted
+   * @param shapeVersion the version of the shape the instance was created from
+   * @param instructions the instructions of the shape instance
+   * @param template whether the shape instance is a template
+   */
+  private record CachedShapeInstance(
+      Long id,
+      Long shapeId,
+      Instant shapeVersion,
+      List<Instruction> instructions,
+      boolean template) {}
+}
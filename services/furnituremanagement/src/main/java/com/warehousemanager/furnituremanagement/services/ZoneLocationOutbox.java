@@ -0,0 +1,54 @@
+package com.warehousemanager.furnituremanagement.services;
+
+import java.sql.Connection;
+import java.util.Collection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transactional outbox of zone instances whose location changed. The zone instances are recorded
+ * in the same transaction as the change that moved them, so a move is never lost once it is
+ * committed. Their locations are reported to the item service later by {@link ZoneLocationRelay}.
+ */
+@Component
+public class ZoneLocationOutbox {
+  private final JdbcTemplate jdbcTemplate;
+
+  private static final String INSERT_CHANGES =
+      """
+      INSERT INTO zone_location_change (zone_instance_id, created_at)
+      SELECT zone_instance_id, now()
+      FROM unnest(?::bigint[]) AS zone_instance_id
+      """;
+
+  /**
+   * Constructs a ZoneLocationOutbox with the specified dependencies.
+   *
+   * @param jdbcTemplate the JDBC template for writing the changes
+   */
+  public ZoneLocationOutbox(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Records that zone instances moved, or that the items in them need their location reported
+   * again, with a single statement.
+   *
+   * @param zoneInstanceIds the IDs of the zone instances
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordMoved(Collection<Long> zoneInstanceIds) {
+    if (zoneInstanceIds.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.update(
+        INSERT_CHANGES,
+        preparedStatement -> {
+          Connection connection = preparedStatement.getConnection();
+          preparedStatement.setArray(
+              1, connection.createArrayOf("bigint", zoneInstanceIds.toArray()));
+        });
+  }
+}
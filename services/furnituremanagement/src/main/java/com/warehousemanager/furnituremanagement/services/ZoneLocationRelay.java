@@ -0,0 +1,109 @@
+package com.warehousemanager.furnituremanagement.services;
+
+import com.warehousemanager.furnituremanagement.ZoneInstanceLocation;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reports the locations of the zone instances recorded in the {@link ZoneLocationOutbox} to the
+ * item service in batches. The locations are looked up when a batch is sent, so the item service
+ * always receives the latest location of a zone instance, however often it moved in between. Every
+ * batch is claimed and removed from the outbox in a transaction that only commits once the item
+ * service accepted the batch, so a move is reported at least once. Only one instance relays at a
+ * time, so that an older location can never overtake a newer one.
+ */
+@Component
+public class ZoneLocationRelay {
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ZoneLocationService zoneLocationService;
+  private final int batchSize;
+  private static final Logger logger = LoggerFactory.getLogger(ZoneLocationRelay.class);
+
+  private static final String LOCK_RELAY =
+      "SELECT pg_try_advisory_xact_lock(hashtext('zone_location_change'))";
+  private static final String CLAIM_BATCH =
+      """
+      DELETE FROM zone_location_change
+      WHERE id IN (
+        SELECT id FROM zone_location_change
+        ORDER BY id
+        LIMIT ?
+      )
+      RETURNING zone_instance_id
+      """;
+
+  /**
+   * Constructs a ZoneLocationRelay with the specified settings.
+   *
+   * @param jdbcTemplate the JDBC template for claiming the changes
+   * @param transactionManager the transaction manager for the claiming transactions
+   * @param zoneLocationService the service for looking up and reporting zone locations
+   * @param batchSize the maximum number of changes claimed by a single transaction
+   */
+  public ZoneLocationRelay(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      ZoneLocationService zoneLocationService,
+      @Value("${furniture.zone-locations.batch-size:500}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.zoneLocationService = zoneLocationService;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Reports all pending changes. Stops at the first batch that cannot be reported; that batch
+   * stays in the outbox and is retried by the next run. Does nothing while another instance is
+   * relaying.
+   *
+   * @return the number of relayed changes
+   */
+  @Scheduled(fixedDelayString = "${furniture.zone-locations.interval:PT1S}")
+  public int relay() {
+    int relayed = 0;
+    int claimed;
+    try {
+      do {
+        claimed = transactionTemplate.execute(status -> reportBatch());
+        relayed += claimed;
+      } while (claimed == batchSize);
+    } catch (RuntimeException e) {
+      logger.warn("Failed to report zone locations to the item service, will retry", e);
+    }
+    if (relayed > 0) {
+      logger.info("Relayed {} zone location changes to the item service", relayed);
+    }
+    return relayed;
+  }
+
+  /**
+   * Claims the oldest pending changes and reports the current locations of their zone instances
+   * with a single request. Must be called in a transaction, which removes the changes from the
+   * outbox when it commits and holds the relay lock until then.
+   *
+   * @return the number of claimed changes, or 0 if another instance is relaying
+   */
+  private int reportBatch() {
+    if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(LOCK_RELAY, Boolean.class))) {
+      return 0;
+    }
+    List<Long> zoneInstanceIds = jdbcTemplate.queryForList(CLAIM_BATCH, Long.class, batchSize);
+    if (zoneInstanceIds.isEmpty()) {
+      return 0;
+    }
+    Set<Long> distinctIds = new LinkedHashSet<>(zoneInstanceIds);
+    List<ZoneInstanceLocation> locations = zoneLocationService.getLocations(distinctIds);
+    zoneLocationService.report(locations);
+    return zoneInstanceIds.size();
+  }
+}
@@ -0,0 +1,129 @@
+package com.warehousemanager.furnituremanagement.services;
+
+import com.warehousemanager.furnituremanagement.Instruction;
+import com.warehousemanager.furnituremanagement.ShapeInstance;
+import com.warehousemanager.furnituremanagement.ZoneInstanceLocation;
+import com.warehousemanager.furnituremanagement.entities.FurnitureInstance;
+import com.warehousemanager.furnituremanagement.entities.ZoneInstance;
+import com.warehousemanager.furnituremanagement.repositories.ZoneInstanceRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Service for describing where zone instances are and reporting it to the item service. A zone
+ * instance is located at the position of its furniture instance, which is the position of the
+ * first instruction of the furniture instance's top-down view.
+ */
+@Service
+public class ZoneLocationService {
+  private final ZoneInstanceRepository zoneInstanceRepository;
+  private final FurnitureService furnitureService;
+  private final RestClient restClient;
+  private static final Logger logger = LoggerFactory.getLogger(ZoneLocationService.class);
+  private static final String SHAPE_SERVICE_URL = "http://shape-management";
+  private static final String ITEM_SERVICE_URL = "http://item-management";
+
+  /**
+   * Constructs a ZoneLocationService with the specified dependencies.
+   *
+   * @param zoneInstanceRepository the repository for reading zone instances
+   * @param furnitureService the service used to retrieve top-down views from the shape service
+   * @param restClientBuilder the RestClient builder for calling the item service
+   */
+  public ZoneLocationService(
+      ZoneInstanceRepository zoneInstanceRepository,
+      FurnitureService furnitureService,
+      RestClient.Builder restClientBuilder) {
+    this.zoneInstanceRepository = zoneInstanceRepository;
+    this.furnitureService = furnitureService;
+    this.restClient = restClientBuilder.build();
+  }
+
+  /**
+   * Retrieves the locations of zone instances. The top-down views of all their furniture instances
+   * are retrieved with a single request. Zone instances that do not exist are left out.
+   *
+   * @param zoneInstanceIds the IDs of the zone instances
+   * @return the locations of the zone instances
+   */
+  public List<ZoneInstanceLocation> getLocations(Collection<Long> zoneInstanceIds) {
+    List<ZoneInstance> zoneInstances = new ArrayList<>();
+    zoneInstanceRepository.findAllById(zoneInstanceIds).forEach(zoneInstances::add);
+    return toLocations(zoneInstances);
+  }
+
+  /**
+   * Reports the locations of zone instances to the item service with a single request, which
+   * updates the locations of all items stored in them.
+   *
+   * @param locations the locations of the zone instances
+   * @throws RestClientException if the item service does not accept the locations
+   */
+  public void report(List<ZoneInstanceLocation> locations) {
+    if (locations.isEmpty()) {
+      return;
+    }
+    restClient
+        .post()
+        .uri(ITEM_SERVICE_URL + "/items/locations/zones")
+        .body(locations)
+        .retrieve()
+        .toBodilessEntity();
+    logger.info("Reported locations of {} zone instances", locations.size());
+  }
+
+  /**
+   * Converts zone instances to their locations.
+   *
+   * @param zoneInstances the zone instances
+   * @return the locations of the zone instances
+   */
+  private List<ZoneInstanceLocation> toLocations(List<ZoneInstance> zoneInstances) {
+    if (zoneInstances.isEmpty()) {
+      return List.of();
+    }
+    List<Long> topDownViewIds =
+        zoneInstances.stream()
+            .map(zoneInstance -> zoneInstance.getFurnitureInstance().getTopDownViewInstanceId())
+            .distinct()
+            .toList();
+    Map<Long, ShapeInstance> topDownViews =
+        furnitureService.getShapeInstances(topDownViewIds, SHAPE_SERVICE_URL);
+    List<ZoneInstanceLocation> locations = new ArrayList<>();
+    for (ZoneInstance zoneInstance : zoneInstances) {
+      FurnitureInstance furnitureInstance = zoneInstance.getFurnitureInstance();
+      Instruction position =
+          firstInstruction(topDownViews.get(furnitureInstance.getTopDownViewInstanceId()));
+      locations.add(
+          new ZoneInstanceLocation(
+              zoneInstance.getId(),
+              furnitureInstance.getId(),
+              position == null ? null : position.getParameters().positionX,
+              position == null ? null : position.getParameters().positionY));
+    }
+    return locations;
+  }
+
+  /**
+   * Returns the first instruction of a top-down view that has parameters.
+   *
+   * @param topDownView the top-down view, possibly null
+   * @return the first instruction with parameters, or null if there is none
+   */
+  private static Instruction firstInstruction(ShapeInstance topDownView) {
+    if (topDownView == null || topDownView.instructions() == null) {
+      return null;
+    }
+    return topDownView.instructions().stream()
+        .filter(instruction -> instruction.getParameters() != null)
+        .findFirst()
+        .orElse(null);
+  }
+}
@@ -0,0 +1,162 @@
+package com.warehousemanager.furnituremanagement.services;
+
+import com.warehousemanager.furnituremanagement.MoveItemRequest;
+import com.warehousemanager.furnituremanagement.entities.ZoneInstanceItem;
+import com.warehousemanager.furnituremanagement.repositories.ZoneInstanceItemRepository;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for changing which items are placed in which zone instances. Changes are applied with
+ * set-based statements instead of loading and saving every affected zone instance.
+ */
+@Service
+public class ZoneMembershipService {
+  private final JdbcTemplate jdbcTemplate;
+  private final ZoneInstanceItemRepository zoneInstanceItemRepository;
+  private static final Logger logger = LoggerFactory.getLogger(ZoneMembershipService.class);
+
+  private static final String REMOVE_MEMBERSHIPS =
+      """
+      DELETE FROM zone_instance_items
+      WHERE (zone_instance_id, item_id) IN (
+        SELECT * FROM unnest(?::bigint[], ?::bigint[])
+      )
+      """;
+  private static final String ADD_MEMBERSHIPS =
+      """
+      INSERT INTO zone_instance_items (zone_instance_id, item_id)
+      SELECT membership.zone_instance_id, membership.item_id
+      FROM unnest(?::bigint[], ?::bigint[]) AS membership(zone_instance_id, item_id)
+      JOIN zone_instance ON zone_instance.id = membership.zone_instance_id
+      ON CONFLICT DO NOTHING
+      """;
+
+  /**
+   * Constructs a ZoneMembershipService with the specified dependencies.
+   *
+   * @param jdbcTemplate the JDBC template for executing the set-based statements
+   * @param zoneInstanceItemRepository the repository for managing item placements
+   */
+  public ZoneMembershipService(
+      JdbcTemplate jdbcTemplate, ZoneInstanceItemRepository zoneInstanceItemRepository) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.zoneInstanceItemRepository = zoneInstanceItemRepository;
+  }
+
+  /**
+   * Retrieves the IDs of the items placed in the specified zone instances with a single query.
+   *
+   * @param zoneInstanceIds the IDs of the zone instances
+   * @return the item IDs keyed by zone instance ID, with an empty set for every zone instance
+   *     without items
+   */
+  public Map<Long, Set<Long>> getItemIds(Collection<Long> zoneInstanceIds) {
+    Map<Long, Set<Long>> itemIds = new HashMap<>();
+    for (Long zoneInstanceId : zoneInstanceIds) {
+      itemIds.put(zoneInstanceId, new LinkedHashSet<>());
+    }
+    if (zoneInstanceIds.isEmpty()) {
+      return itemIds;
+    }
+    for (ZoneInstanceItem placement :
+        zoneInstanceItemRepository.findByZoneInstanceIdIn(zoneInstanceIds)) {
+      itemIds.get(placement.getZoneInstanceId()).add(placement.getItemId());
+    }
+    return itemIds;
+  }
+
+  /**
+   * Removes items from every zone instance they are placed in, with a single statement.
+   *
+   * @param itemIds the IDs of the items to remove
+   * @return the number of removed placements
+   */
+  @Transactional
+  public int removeItems(Collection<Long> itemIds) {
+    if (itemIds.isEmpty()) {
+      return 0;
+    }
+    int removed = zoneInstanceItemRepository.deleteByItemIdIn(itemIds);
+    logger.info("Removed {} placements of {} items from zone instances", removed, itemIds.size());
+    return removed;
+  }
+
+  /**
+   * Moves items between zone instances. Every item is removed from its old zone instance and
+   * added to its new one, using one statement for all removals and one for all additions. Zone
+   * instances that do not exist are ignored. If an item is listed more than once, the last request
+   * for it applies.
+   *
+   * @param requests the move requests
+   */
+  @Transactional
+  public void moveItems(List<MoveItemRequest> requests) {
+    Map<Long, MoveItemRequest> requestsByItemId = new LinkedHashMap<>();
+    for (MoveItemRequest request : requests) {
+      requestsByItemId.put(request.itemId(), request);
+    }
+    List<Long> oldZoneIds = new ArrayList<>();
+    List<Long> removedItemIds = new ArrayList<>();
+    List<Long> newZoneIds = new ArrayList<>();
+    List<Long> addedItemIds = new ArrayList<>();
+    for (MoveItemRequest request : requestsByItemId.values()) {
+      if (request.oldZoneId() != null) {
+        oldZoneIds.add(request.oldZoneId());
+        removedItemIds.add(request.itemId());
+      }
+      if (request.newZoneId() != null) {
+        newZoneIds.add(request.newZoneId());
+        addedItemIds.add(request.itemId());
+      }
+    }
+
+    int removed = update(REMOVE_MEMBERSHIPS, oldZoneIds, removedItemIds);
+    if (removed < removedItemIds.size()) {
+      logger.warn(
+          "{} of {} moved items were not found in their old zone instance",
+          removedItemIds.size() - removed,
+          removedItemIds.size());
+    }
+    int added = update(ADD_MEMBERSHIPS, newZoneIds, addedItemIds);
+    logger.info(
+        "Moved {} items, {} removed from old zone instances, {} added to new zone instances",
+        requestsByItemId.size(),
+        removed,
+        added);
+  }
+
+  /**
+   * Executes a statement that takes zone instance IDs and item IDs as two parallel arrays.
+   *
+   * @param sql the statement to execute
+   * @param zoneInstanceIds the zone instance IDs
+   * @param itemIds the item IDs, one per zone instance ID
+   * @return the number of affected rows
+   */
+  private int update(String sql, List<Long> zoneInstanceIds, List<Long> itemIds) {
+    if (itemIds.isEmpty()) {
+      return 0;
+    }
+    return jdbcTemplate.update(
+        sql,
+        preparedStatement -> {
+          Connection connection = preparedStatement.getConnection();
+          preparedStatement.setArray(
+              1, connection.createArrayOf("bigint", zoneInstanceIds.toArray()));
+          preparedStatement.setArray(2, connection.createArrayOf("bigint", itemIds.toArray()));
+        });
+  }
+}
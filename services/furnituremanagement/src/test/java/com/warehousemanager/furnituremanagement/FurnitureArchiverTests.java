@@ -0,0 +1,114 @@
+package com.warehousemanager.furnituremanagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.warehousemanager.furnituremanagement.services.FurnitureArchiver;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Checks that old furniture versions are moved into the furniture history together with their
+ * zones, while versions that instances still reference stay in the furniture table.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FurnitureArchiverTests {
+  @Container
+  private static final PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:17")
+          .withUsername("postgres")
+          .withCopyFileToContainer(
+              MountableFile.forHostPath("init-db.sql"), "/docker-entrypoint-initdb.d/init-db.sql");
+
+  private JdbcTemplate jdbcTemplate;
+  private FurnitureArchiver archiver;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute(
+        "TRUNCATE furniture, furniture_history, zone, zone_history, furniture_instance,"
+            + " zone_instance CASCADE");
+    archiver =
+        new FurnitureArchiver(
+            jdbcTemplate, new DataSourceTransactionManager(dataSource), Duration.ofDays(30), 3);
+  }
+
+  @Test
+  void movesOldVersionsWithTheirZonesAndKeepsReferencedOnes() {
+    // 5 furniture with 6 versions each, one every 20 days; only the newest version is current
+    jdbcTemplate.execute(
+        """
+        INSERT INTO furniture (id, version, current, deleted, name, top_down_view_id)
+        SELECT furniture_id, now() - (6 - revision) * interval '20 days', revision = 6, false,
+               'Furniture ' || furniture_id, 1
+        FROM generate_series(1, 5) AS furniture_id, generate_series(1, 6) AS revision
+        """);
+    jdbcTemplate.execute(
+        """
+        INSERT INTO zone (id, name, shape_id, furniture_id, furniture_version)
+        SELECT row_number() OVER (ORDER BY id, version), 'Zone', 1, id, version
+        FROM furniture
+        """);
+    // The oldest version of furniture 1 has an instance, the second oldest version of furniture 2
+    // has a zone that an instance of the current version points to
+    jdbcTemplate.execute(
+        """
+        INSERT INTO furniture_instance
+          (id, top_down_view_instance_id, version, furniture_id, furniture_version)
+        SELECT 1, 1, now(), 1, min(version) FROM furniture WHERE id = 1
+        UNION ALL
+        SELECT 2, 2, now(), 2, max(version) FROM furniture WHERE id = 2
+        """);
+    jdbcTemplate.execute(
+        """
+        INSERT INTO zone_instance (id, furniture_instance_id, zone_id)
+        SELECT 1, 2, zone.id
+        FROM zone
+        WHERE furniture_id = 2
+          AND furniture_version = (SELECT min(version) FROM furniture WHERE id = 2 AND NOT current)
+                                   + interval '20 days'
+        """);
+    int expected =
+        count(
+                """
+                SELECT count(*) FROM furniture
+                WHERE NOT current AND version < now() - interval '30 days'
+                """)
+            - 2;
+
+    assertEquals(expected, archiver.archive());
+
+    assertEquals(expected, count("SELECT count(*) FROM furniture_history"));
+    assertEquals(expected, count("SELECT count(*) FROM zone_history"));
+    assertEquals(30 - expected, count("SELECT count(*) FROM furniture"));
+    assertEquals(30 - expected, count("SELECT count(*) FROM zone"));
+    assertEquals(
+        2,
+        count(
+            """
+            SELECT count(*) FROM furniture
+            JOIN zone ON zone.furniture_id = furniture.id
+              AND zone.furniture_version = furniture.version
+            WHERE NOT furniture.current
+              AND (zone.id IN (SELECT zone_id FROM zone_instance)
+                OR (furniture.id, furniture.version)
+                  IN (SELECT furniture_id, furniture_version FROM furniture_instance))
+            """));
+    assertEquals(0, archiver.archive());
+  }
+
+  private int count(String query) {
+    return jdbcTemplate.queryForObject(query, Integer.class);
+  }
+}
@@ -0,0 +1,113 @@
+package com.warehousemanager.furnituremanagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.warehousemanager.furnituremanagement.services.ZoneLocationOutbox;
+import com.warehousemanager.furnituremanagement.services.ZoneLocationRelay;
+import com.warehousemanager.furnituremanagement.services.ZoneLocationService;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.web.client.RestClientException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Checks that moved zone instances recorded in the outbox are reported to the item service once
+ * per batch, stay in the outbox until the item service accepts them, and are only relayed by one
+ * instance at a time.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ZoneLocationRelayTests {
+  @Container
+  private static final PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:17")
+          .withUsername("postgres")
+          .withCopyFileToContainer(
+              MountableFile.forHostPath("init-db.sql"), "/docker-entrypoint-initdb.d/init-db.sql");
+
+  private DataSource dataSource;
+  private JdbcTemplate jdbcTemplate;
+  private ZoneLocationOutbox outbox;
+  private ZoneLocationService zoneLocationService;
+  private ZoneLocationRelay relay;
+
+  @BeforeEach
+  void setUp() {
+    dataSource =
+        new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("TRUNCATE zone_location_change");
+    outbox = new ZoneLocationOutbox(jdbcTemplate);
+    zoneLocationService = mock(ZoneLocationService.class);
+    relay =
+        new ZoneLocationRelay(
+            jdbcTemplate, new DataSourceTransactionManager(dataSource), zoneLocationService, 10);
+  }
+
+  @Test
+  void reportsEveryMovedZoneInstanceOnce() {
+    outbox.recordMoved(List.of(1L, 2L));
+    outbox.recordMoved(List.of(1L));
+    List<ZoneInstanceLocation> locations =
+        List.of(
+            new ZoneInstanceLocation(1L, 10L, 5.0, 5.0),
+            new ZoneInstanceLocation(2L, 10L, 5.0, 5.0));
+    when(zoneLocationService.getLocations(Set.of(1L, 2L))).thenReturn(locations);
+
+    assertEquals(3, relay.relay());
+
+    verify(zoneLocationService).report(locations);
+    assertEquals(0, countPendingChanges());
+  }
+
+  @Test
+  void keepsChangesTheItemServiceDidNotAccept() {
+    outbox.recordMoved(List.of(1L, 2L));
+    when(zoneLocationService.getLocations(any())).thenReturn(List.of());
+    doThrow(new RestClientException("Item service unavailable"))
+        .when(zoneLocationService)
+        .report(any());
+
+    assertEquals(0, relay.relay());
+
+    assertEquals(2, countPendingChanges());
+  }
+
+  @Test
+  void leavesChangesToTheInstanceAlreadyRelaying() throws Exception {
+    outbox.recordMoved(List.of(1L));
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      connection.setAutoCommit(false);
+      statement.execute("SELECT pg_advisory_xact_lock(hashtext('zone_location_change'))");
+
+      assertEquals(0, relay.relay());
+
+      connection.rollback();
+    }
+
+    verify(zoneLocationService, never()).report(any());
+    assertEquals(1, countPendingChanges());
+  }
+
+  private int countPendingChanges() {
+    return jdbcTemplate.queryForObject("SELECT count(*) FROM zone_location_change", Integer.class);
+  }
+}
@@ -212,7 +212,7 @@ class FloorView extends Phaser.Scene {
   async #loadFloorData(floorId) {
     try {
       const response = await fetch(
-        `${API_URL}/floor-management/floors/${floorId}`,
+        `${API_URL}/floor-management/floors/${floorId}/full`,
       );
       if (!response.ok) {
         throw new Error("Failed to fetch floor data.");
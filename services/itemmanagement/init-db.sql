@@ -24,3 +24,127 @@ TABLESPACE pg_default;
 
 ALTER TABLE IF EXISTS public.item
     OWNER to postgres;
+
+-- Index: item_current_id_idx
+
+-- DROP INDEX IF EXISTS public.item_current_id_idx;
+
+CREATE INDEX IF NOT EXISTS item_current_id_idx
+    ON public.item USING btree
+    (id ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE current AND NOT deleted;
+
+-- Index: item_current_parent_id_id_idx
+
+-- DROP INDEX IF EXISTS public.item_current_parent_id_id_idx;
+
+CREATE INDEX IF NOT EXISTS item_current_parent_id_id_idx
+    ON public.item USING btree
+    (parent_id ASC NULLS LAST, id ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE current AND NOT deleted;
+
+-- Index: item_current_zone_id_id_idx
+
+-- DROP INDEX IF EXISTS public.item_current_zone_id_id_idx;
+
+CREATE INDEX IF NOT EXISTS item_current_zone_id_id_idx
+    ON public.item USING btree
+    (zone_id ASC NULLS LAST, id ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE current AND NOT deleted;
+
+-- Index: item_current_floor_id_id_idx
+
+-- DROP INDEX IF EXISTS public.item_current_floor_id_id_idx;
+
+CREATE INDEX IF NOT EXISTS item_current_floor_id_id_idx
+    ON public.item USING btree
+    (floor_id ASC NULLS LAST, id ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE current AND NOT deleted;
+
+-- Index: item_current_category_id_idx
+
+-- DROP INDEX IF EXISTS public.item_current_category_id_idx;
+
+CREATE INDEX IF NOT EXISTS item_current_category_id_idx
+    ON public.item USING btree
+    (category COLLATE pg_catalog."default" ASC NULLS LAST, id ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE current AND NOT deleted;
+
+-- Table: public.item_history
+
+-- DROP TABLE IF EXISTS public.item_history;
+
+CREATE TABLE IF NOT EXISTS public.item_history
+(
+    id bigint NOT NULL,
+    version timestamp(6) with time zone NOT NULL,
+    category character varying(255) COLLATE pg_catalog."default",
+    current boolean NOT NULL,
+    deleted boolean NOT NULL,
+    description character varying(255) COLLATE pg_catalog."default",
+    floor_id bigint,
+    name character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    parent_id bigint,
+    quantity character varying(255) COLLATE pg_catalog."default",
+    zone_id bigint,
+    CONSTRAINT item_history_pkey PRIMARY KEY (id, version)
+) PARTITION BY RANGE (version);
+
+ALTER TABLE IF EXISTS public.item_history
+    OWNER to postgres;
+
+-- Table: public.item_location
+
+-- DROP TABLE IF EXISTS public.item_location;
+
+CREATE TABLE IF NOT EXISTS public.item_location
+(
+    item_id bigint NOT NULL,
+    floor_id bigint,
+    zone_instance_id bigint,
+    furniture_instance_id bigint,
+    position_x double precision,
+    position_y double precision,
+    updated_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT item_location_pkey PRIMARY KEY (item_id)
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE IF EXISTS public.item_location
+    OWNER to postgres;
+
+-- Index: item_location_zone_instance_id_idx
+
+-- DROP INDEX IF EXISTS public.item_location_zone_instance_id_idx;
+
+CREATE INDEX IF NOT EXISTS item_location_zone_instance_id_idx
+    ON public.item_location USING btree
+    (zone_instance_id ASC NULLS LAST)
+    TABLESPACE pg_default;
+
+-- Table: public.item_event
+
+-- DROP TABLE IF EXISTS public.item_event;
+
+CREATE TABLE IF NOT EXISTS public.item_event
+(
+    id bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    type character varying(16) COLLATE pg_catalog."default" NOT NULL,
+    item_id bigint NOT NULL,
+    old_zone_id bigint,
+    new_zone_id bigint,
+    created_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT item_event_pkey PRIMARY KEY (id),
+    CONSTRAINT item_event_type_check CHECK (type IN ('CREATED', 'MOVED', 'DELETED'))
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE IF EXISTS public.item_event
+    OWNER to postgres;
@@ -0,0 +1,19 @@
+-- Adds partial indexes on current, non-deleted items. The lookups by ID, by parent and by zone
+-- only ever read these rows, so the indexes stay small however many old versions accumulate.
+-- CONCURRENTLY keeps the tables writable meanwhile, so this script must not run inside a
+-- transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS item_current_id_idx
+    ON public.item USING btree
+    (id ASC NULLS LAST)
+    WHERE current AND NOT deleted;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS item_current_parent_id_idx
+    ON public.item USING btree
+    (parent_id ASC NULLS LAST)
+    WHERE current AND NOT deleted;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS item_current_zone_id_idx
+    ON public.item USING btree
+    (zone_id ASC NULLS LAST)
+    WHERE current AND NOT deleted;
@@ -0,0 +1,25 @@
+-- Adds the history table that non-current item versions are archived into. Its monthly
+-- partitions are created by the archiver on demand.
+
+-- Table: public.item_history
+
+-- DROP TABLE IF EXISTS public.item_history;
+
+CREATE TABLE IF NOT EXISTS public.item_history
+(
+    id bigint NOT NULL,
+    version timestamp(6) with time zone NOT NULL,
+    category character varying(255) COLLATE pg_catalog."default",
+    current boolean NOT NULL,
+    deleted boolean NOT NULL,
+    description character varying(255) COLLATE pg_catalog."default",
+    floor_id bigint,
+    name character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    parent_id bigint,
+    quantity character varying(255) COLLATE pg_catalog."default",
+    zone_id bigint,
+    CONSTRAINT item_history_pkey PRIMARY KEY (id, version)
+) PARTITION BY RANGE (version);
+
+ALTER TABLE IF EXISTS public.item_history
+    OWNER to postgres;
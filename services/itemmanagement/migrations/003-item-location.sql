@@ -0,0 +1,39 @@
+-- Adds the item location index and fills it from the current items. The furniture instance
+-- and position of every location are completed once the furniture service reports the location
+-- of its zone instance, which its migration 004-zone-location-change.sql does for all of them.
+
+-- Table: public.item_location
+
+-- DROP TABLE IF EXISTS public.item_location;
+
+CREATE TABLE IF NOT EXISTS public.item_location
+(
+    item_id bigint NOT NULL,
+    floor_id bigint,
+    zone_instance_id bigint,
+    furniture_instance_id bigint,
+    position_x double precision,
+    position_y double precision,
+    updated_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT item_location_pkey PRIMARY KEY (item_id)
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE IF EXISTS public.item_location
+    OWNER to postgres;
+
+-- Index: item_location_zone_instance_id_idx
+
+-- DROP INDEX IF EXISTS public.item_location_zone_instance_id_idx;
+
+CREATE INDEX IF NOT EXISTS item_location_zone_instance_id_idx
+    ON public.item_location USING btree
+    (zone_instance_id ASC NULLS LAST)
+    TABLESPACE pg_default;
+
+INSERT INTO public.item_location (item_id, floor_id, zone_instance_id, updated_at)
+SELECT id, floor_id, zone_id, now()
+FROM public.item
+WHERE current AND NOT deleted AND (floor_id IS NOT NULL OR zone_id IS NOT NULL)
+ON CONFLICT (item_id) DO NOTHING;
@@ -0,0 +1,23 @@
+-- Adds the outbox that item changes are recorded in until they are delivered to the furniture
+-- service.
+
+-- Table: public.item_event
+
+-- DROP TABLE IF EXISTS public.item_event;
+
+CREATE TABLE IF NOT EXISTS public.item_event
+(
+    id bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    type character varying(16) COLLATE pg_catalog."default" NOT NULL,
+    item_id bigint NOT NULL,
+    old_zone_id bigint,
+    new_zone_id bigint,
+    created_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT item_event_pkey PRIMARY KEY (id),
+    CONSTRAINT item_event_type_check CHECK (type IN ('CREATED', 'MOVED', 'DELETED'))
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE IF EXISTS public.item_event
+    OWNER to postgres;
@@ -0,0 +1,30 @@
+-- Replaces the partial indexes on parent and zone with ones that also cover the ID, and adds
+-- matching ones for floor and category. A page of items filtered by one of these columns is then
+-- read from the index in ID order, starting right after the cursor. The new indexes are built
+-- before the old ones are dropped, so the lookups by parent and zone stay indexed throughout.
+-- CONCURRENTLY keeps the tables writable meanwhile, so this script must not run inside a
+-- transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS item_current_parent_id_id_idx
+    ON public.item USING btree
+    (parent_id ASC NULLS LAST, id ASC NULLS LAST)
+    WHERE current AND NOT deleted;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS item_current_zone_id_id_idx
+    ON public.item USING btree
+    (zone_id ASC NULLS LAST, id ASC NULLS LAST)
+    WHERE current AND NOT deleted;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS item_current_floor_id_id_idx
+    ON public.item USING btree
+    (floor_id ASC NULLS LAST, id ASC NULLS LAST)
+    WHERE current AND NOT deleted;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS item_current_category_id_idx
+    ON public.item USING btree
+    (category ASC NULLS LAST, id ASC NULLS LAST)
+    WHERE current AND NOT deleted;
+
+DROP INDEX CONCURRENTLY IF EXISTS public.item_current_parent_id_idx;
+
+DROP INDEX CONCURRENTLY IF EXISTS public.item_current_zone_id_idx;
@@ -0,0 +1,11 @@
+package com.warehousemanager.itemmanagement;
+
+/** Enum representing the kinds of item changes published by the item service. */
+public enum ItemEventType {
+  /** An item was created. */
+  CREATED,
+  /** An item was moved to another zone instance. */
+  MOVED,
+  /** An item was deleted. */
+  DELETED
+}
@@ -0,0 +1,11 @@
+package com.warehousemanager.itemmanagement;
+
+/**
+ * Filters for listing items. Every filter that is null is ignored.
+ *
+ * @param category the category the items must have
+ * @param floorId the identifier of the floor the items must be on
+ * @param zoneId the identifier of the zone the items must be stored in
+ * @param parentId the identifier of the item the items must be direct children of
+ */
+public record ItemFilter(String category, Long floorId, Long zoneId, Long parentId) {}
@@ -1,5 +1,6 @@
 package com.warehousemanager.itemmanagement;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.Instant;
 import java.util.List;
 
@@ -16,7 +17,8 @@ import java.util.List;
  * @param floorId the identifier for the floor where the item is stored
  * @param zoneId the identifier for the zone where the item is stored
  * @param parentId the identifier of the parent item, if applicable
- * @param children the list of child items, representing a hierarchical structure
+ * @param children the list of child items, representing a hierarchical structure, or null if the
+ *     children were not requested
  */
 public record ItemResponseDataTransferObject(
     Long id,
@@ -29,4 +31,4 @@ public record ItemResponseDataTransferObject(
     Long floorId,
     Long zoneId,
     Long parentId,
-    List<ItemResponseDataTransferObject> children) {}
+    @JsonInclude(JsonInclude.Include.NON_NULL) List<ItemResponseDataTransferObject> children) {}
@@ -1,24 +1,38 @@
 package com.warehousemanager.itemmanagement.controller;
 
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.warehousemanager.itemmanagement.ItemCreateDataTransferObject;
+import com.warehousemanager.itemmanagement.ItemFilter;
 import com.warehousemanager.itemmanagement.ItemResponseDataTransferObject;
 import com.warehousemanager.itemmanagement.MoveItemRequest;
+import com.warehousemanager.itemmanagement.ZoneInstanceLocation;
 import com.warehousemanager.itemmanagement.ZoneMoveItemRequest;
 import com.warehousemanager.itemmanagement.entities.Item;
+import com.warehousemanager.itemmanagement.entities.ItemLocation;
 import com.warehousemanager.itemmanagement.repositories.ItemRepository;
+import com.warehousemanager.itemmanagement.services.ItemEventOutbox;
+import com.warehousemanager.itemmanagement.services.ItemLocationService;
 import com.warehousemanager.itemmanagement.services.ItemService;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -27,51 +41,139 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 public class ItemManagementController {
-  private final DiscoveryClient discoveryClient;
-  private final RestClient restClient;
   private final ItemRepository itemRepository;
   private final Logger logger = LoggerFactory.getLogger(ItemManagementController.class);
 
   private final ItemService itemService;
+  private final ItemLocationService itemLocationService;
+  private final ItemEventOutbox itemEventOutbox;
+  private final ObjectMapper objectMapper;
+  private final EntityManager entityManager;
+  private final TransactionTemplate readOnlyTransaction;
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final int STREAM_CHUNK_SIZE = 500;
 
   public ItemManagementController(
       ItemRepository itemRepository,
-      DiscoveryClient discoveryClient,
-      RestClient.Builder restClientBuilder,
-      ItemService itemService) {
+      ItemService itemService,
+      ItemLocationService itemLocationService,
+      ItemEventOutbox itemEventOutbox,
+      ObjectMapper objectMapper,
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager) {
 
-    this.discoveryClient = discoveryClient;
-    this.restClient = restClientBuilder.build();
     this.itemRepository = itemRepository;
     this.itemService = itemService;
+    this.itemLocationService = itemLocationService;
+    this.itemEventOutbox = itemEventOutbox;
+    this.objectMapper = objectMapper;
+    this.entityManager = entityManager;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
   }
 
+  /**
+   * Retrieves all current items with their descendants. The items are read from a database cursor
+   * in chunks; the descendants of every chunk are loaded with a single query and the chunk is
+   * written to the response before the next one is read, so the heap use is bounded by the chunk
+   * size instead of the number of items.
+   *
+   * @return the items as a JSON array, ordered by ID
+   */
   @GetMapping("/items")
-  public List<ItemResponseDataTransferObject> getAllItems() {
-    List<Item> items = itemRepository.findByDeletedFalseAndCurrentTrue();
-    List<ItemResponseDataTransferObject> itemResponseDataTransferObjects = new ArrayList<>();
-    for (Item item : items) {
-      ItemResponseDataTransferObject dto = itemService.convertToDto(item);
-      itemResponseDataTransferObjects.add(dto);
+  public ResponseEntity<StreamingResponseBody> getAllItems() {
+    StreamingResponseBody body =
+        outputStream ->
+            readOnlyTransaction.executeWithoutResult(
+                status -> {
+                  try (Stream<Item> items =
+                          itemRepository.streamByDeletedFalseAndCurrentTrueOrderByIdAsc();
+                      JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.writeStartArray();
+                    List<Item> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+                    Iterator<Item> iterator = items.iterator();
+                    while (iterator.hasNext()) {
+                      chunk.add(iterator.next());
+                      if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                        List<ItemResponseDataTransferObject> dtos =
+                            itemService.convertToDtos(chunk);
+                        for (ItemResponseDataTransferObject dto : dtos) {
+                          generator.writePOJO(dto);
+                        }
+                        generator.flush();
+                        chunk.clear();
+                        entityManager.clear();
+                      }
+                    }
+                    generator.writeEndArray();
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+    return ResponseEntity.ok().contentType(APPLICATION_JSON).body(body);
+  }
+
+  /**
+   * Retrieves a page of current items using keyset pagination, optionally filtered by category,
+   * floor, zone and parent. If the page is full, the ID to pass as {@code afterId} for the next
+   * page is returned in the X-Next-Cursor header. Every page costs the same regardless of how far
+   * into the list it is.
+   *
+   * @param filter the filters the items must match, taken from the query parameters
+   * @param afterId the ID after which the page starts, 0 for the first page
+   * @param limit the maximum number of items in the page
+   * @param includeChildren whether to include the descendants of every item
+   * @return the items of the page, ordered by ID
+   */
+  @GetMapping(value = "/items", params = "limit")
+  public ResponseEntity<List<ItemResponseDataTransferObject>> getItemPage(
+      ItemFilter filter,
+      @RequestParam(defaultValue = "0") Long afterId,
+      @RequestParam int limit,
+      @RequestParam(defaultValue = "true") boolean includeChildren) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
     }
-    return itemResponseDataTransferObjects;
+    List<Item> items = itemService.findPage(filter, afterId, limit);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (items.size() == limit) {
+      response.header(NEXT_CURSOR_HEADER, String.valueOf(items.get(items.size() - 1).getId()));
+    }
+    return response.body(
+        includeChildren
+            ? itemService.convertToDtos(items)
+            : itemService.convertToShallowDtos(items));
   }
 
   @GetMapping("/items/batch")
   public Map<Long, ItemResponseDataTransferObject> getItemsByIds(@RequestParam List<Long> itemIds) {
     List<Item> items = itemRepository.findByIdInAndCurrentTrue(itemIds);
     Map<Long, ItemResponseDataTransferObject> itemMap = new HashMap<>();
-    for (Item item : items) {
-      ItemResponseDataTransferObject dto = itemService.convertToDto(item);
-      itemMap.put(item.getId(), dto);
+    for (ItemResponseDataTransferObject dto : itemService.convertToDtos(items)) {
+      itemMap.put(dto.id(), dto);
     }
     return itemMap;
   }
 
+  /**
+   * Retrieves multiple items by their IDs passed in the request body. Intended for ID lists that
+   * are too long to be passed as a query parameter.
+   *
+   * @param itemIds the IDs of the items
+   * @return the current versions of the items keyed by their IDs
+   */
+  @PostMapping("/items/batch/query")
+  public Map<Long, ItemResponseDataTransferObject> queryItemsByIds(
+      @RequestBody List<Long> itemIds) {
+    return getItemsByIds(itemIds);
+  }
+
   @GetMapping("/items/{id}")
   public ItemResponseDataTransferObject getItemById(@PathVariable Long id) {
     Item item = itemRepository.findByIdEqualsAndDeletedFalseAndCurrentTrue(id).orElse(null);
@@ -81,6 +183,44 @@ public class ItemManagementController {
     return itemService.convertToDto(item);
   }
 
+  /**
+   * Retrieves all versions of an item, including archived ones.
+   *
+   * @param id the ID of the item
+   * @return the versions of the item, newest first
+   */
+  @GetMapping("/items/{id}/history")
+  public List<Item> getItemHistory(@PathVariable Long id) {
+    List<Item> versions = itemRepository.findAllVersionsById(id);
+    if (versions.isEmpty()) {
+      throw new IllegalArgumentException("Item not found");
+    }
+    return versions;
+  }
+
+  /**
+   * Retrieves the location of an item from the location index, without resolving the zone and
+   * furniture instances it is placed in.
+   *
+   * @param id the ID of the item
+   * @return the floor, zone instance, furniture instance and position of the item
+   */
+  @GetMapping("/items/{id}/location")
+  public ItemLocation getItemLocation(@PathVariable Long id) {
+    return itemLocationService.getLocation(id);
+  }
+
+  /**
+   * Updates the location index with the locations of zone instances reported by the furniture
+   * service, e.g. after they moved together with their furniture instances.
+   *
+   * @param zoneLocations the new locations of the zone instances
+   */
+  @PostMapping("/items/locations/zones")
+  public void updateZoneLocations(@RequestBody List<ZoneInstanceLocation> zoneLocations) {
+    itemLocationService.updateZoneLocations(zoneLocations);
+  }
+
   @GetMapping("/items/parent/{childId}")
   public ItemResponseDataTransferObject getParentItemByChildId(@PathVariable Long childId) {
     Item childItem =
@@ -105,51 +245,20 @@ public class ItemManagementController {
         .findByIdEqualsAndDeletedFalseAndCurrentTrue(parentId)
         .orElseThrow(() -> new IllegalArgumentException("Parent item not found"));
     List<ItemResponseDataTransferObject> childDtos =
-        itemService.getItemChildren(parentId).stream().map(itemService::convertToDto).toList();
+        itemService.convertToDtos(itemService.getItemChildren(parentId));
     return childDtos;
   }
 
   @Transactional
   @PostMapping("/items/move/batch")
   public void moveItem(@RequestBody List<MoveItemRequest> requests) {
-    ServiceInstance serviceInstance = discoveryClient.getInstances("furniture-management").get(0);
-    String url = serviceInstance.getUri() + "/furniture/zones/instances/moveItem/batch";
-    List<ZoneMoveItemRequest> zoneRequests = new ArrayList<>();
-    for (MoveItemRequest request : requests) {
-      Long itemId = request.itemId();
-      Item item =
-          itemRepository
-              .findByIdEqualsAndDeletedFalseAndCurrentTrue(itemId)
-              .orElseThrow(() -> new IllegalArgumentException("Item not found: " + itemId));
-
-      Item newItem = new Item(item);
-      newItem = itemRepository.save(newItem);
-      item.setCurrent(false);
-
-      Long oldZoneId = item.getZoneId();
-      Long newZoneId = request.newZoneId();
-      ZoneMoveItemRequest zoneRequest = new ZoneMoveItemRequest(itemId, oldZoneId, newZoneId);
-      zoneRequests.add(zoneRequest);
-
-      newItem.setZoneId(newZoneId);
-      Long newFloorId = request.newFloorId();
-      newItem.setFloorId(newFloorId);
-
-      Long newParentId = request.newParentId();
-      Item newParentItem =
-          newParentId != null
-              ? itemRepository.findByIdEqualsAndDeletedFalseAndCurrentTrue(newParentId).orElse(null)
-              : null;
-      if (newParentItem != null) {
-        itemService.moveChildToNewParent(newItem, newParentItem);
-      } else {
-        newItem.setParentId(null);
-      }
-    }
-    logger.info("Sending zone move requests: {}", zoneRequests);
-    restClient.post().uri(url).body(zoneRequests).retrieve().body(Void.class);
+    List<ZoneMoveItemRequest> zoneRequests = itemService.moveItems(requests);
+    logger.info("Recording zone move events: {}", zoneRequests);
+    itemEventOutbox.recordMoved(zoneRequests);
+    itemLocationService.recordMoves(requests);
   }
 
+  @Transactional
   @PostMapping("/items")
   public ItemResponseDataTransferObject createItem(@RequestBody ItemCreateDataTransferObject item) {
     logger.info("Creating item: {}", item);
@@ -160,6 +269,7 @@ public class ItemManagementController {
     newItem.setCategory(item.category());
     newItem.setQuantity(item.quantity());
     Item savedItem = itemRepository.save(newItem);
+    itemEventOutbox.recordCreated(savedItem.getId());
     return itemService.convertToDto(savedItem);
   }
 
@@ -184,6 +294,7 @@ public class ItemManagementController {
     return itemService.convertToDto(newItem);
   }
 
+  @Transactional
   @DeleteMapping("/items/{id}")
   public Set<Long> deleteItem(@PathVariable Long id) {
     List<Item> items = itemRepository.findByIdEqualsAndDeletedFalseOrderByVersionDesc(id);
@@ -192,13 +303,9 @@ public class ItemManagementController {
       throw new IllegalArgumentException("Item not found");
     }
 
-    Set<Long> visitedIds = new HashSet<>();
-    for (Item item : items) {
-      itemService.deleteChildren(item, visitedIds);
-
-      item.setDeleted(true);
-      itemRepository.save(item);
-    }
-    return visitedIds;
+    Set<Long> deletedIds = itemService.deleteWithDescendants(id);
+    itemLocationService.removeLocations(deletedIds);
+    itemEventOutbox.recordDeleted(deletedIds);
+    return deletedIds;
   }
 }
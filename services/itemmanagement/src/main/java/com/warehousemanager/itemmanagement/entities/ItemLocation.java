@@ -0,0 +1,104 @@
+package com.warehousemanager.itemmanagement.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import java.time.Instant;
+
+/**
+ * Where an item currently is. Locations are denormalized from the item and the furniture service
+ * and kept up to date whenever items or furniture instances move, so that an item can be located
+ * with a single lookup.
+ */
+@Entity
+public class ItemLocation {
+  /** Identifier of the located item. */
+  @Id
+  @Column(nullable = false, updatable = false)
+  private Long itemId;
+
+  /** Identifier of the floor the item is on. */
+  private Long floorId;
+
+  /** Identifier of the zone instance the item is stored in. */
+  private Long zoneInstanceId;
+
+  /** Identifier of the furniture instance the zone instance belongs to. */
+  private Long furnitureInstanceId;
+
+  /** X position of the furniture instance on the floor. */
+  private Double positionX;
+
+  /** Y position of the furniture instance on the floor. */
+  private Double positionY;
+
+  /** When the location was last changed. */
+  @Column(nullable = false)
+  private Instant updatedAt;
+
+  /** Default constructor for JPA. */
+  protected ItemLocation() {}
+
+  /**
+   * Gets the identifier of the located item.
+   *
+   * @return the identifier of the item
+   */
+  public Long getItemId() {
+    return itemId;
+  }
+
+  /**
+   * Gets the identifier of the floor the item is on.
+   *
+   * @return the identifier of the floor
+   */
+  public Long getFloorId() {
+    return floorId;
+  }
+
+  /**
+   * Gets the identifier of the zone instance the item is stored in.
+   *
+   * @return the identifier of the zone instance
+   */
+  public Long getZoneInstanceId() {
+    return zoneInstanceId;
+  }
+
+  /**
+   * Gets the identifier of the furniture instance the zone instance belongs to.
+   *
+   * @return the identifier of the furniture instance
+   */
+  public Long getFurnitureInstanceId() {
+    return furnitureInstanceId;
+  }
+
+  /**
+   * Gets the X position of the furniture instance on the floor.
+   *
+   * @return the X position
+   */
+  public Double getPositionX() {
+    return positionX;
+  }
+
+  /**
+   * Gets the Y position of the furniture instance on the floor.
+   *
+   * @return the Y position
+   */
+  public Double getPositionY() {
+    return positionY;
+  }
+
+  /**
+   * Gets when the location was last changed.
+   *
+   * @return the time of the last change
+   */
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+}
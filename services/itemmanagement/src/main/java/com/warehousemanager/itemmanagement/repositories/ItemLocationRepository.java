@@ -0,0 +1,10 @@
+package com.warehousemanager.itemmanagement.repositories;
+
+import com.warehousemanager.itemmanagement.entities.ItemLocation;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Repository interface for managing ItemLocation entities. This interface extends CrudRepository
+ * to provide basic CRUD operations.
+ */
+public interface ItemLocationRepository extends CrudRepository<ItemLocation, Long> {}
@@ -1,16 +1,25 @@
 package com.warehousemanager.itemmanagement.repositories;
 
 import com.warehousemanager.itemmanagement.entities.Item;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository interface for managing Item entities. This interface extends CrudRepository to provide
- * basic CRUD operations.
+ * basic CRUD operations and JpaSpecificationExecutor to query items by optional filters.
  */
-public interface ItemRepository extends CrudRepository<Item, Long> {
+public interface ItemRepository
+    extends CrudRepository<Item, Long>, JpaSpecificationExecutor<Item> {
   /**
    * Retrieves the next available ID for a new item.
    *
@@ -20,11 +29,17 @@ public interface ItemRepository extends CrudRepository<Item, Long> {
   Long getNextId();
 
   /**
-   * Finds all items that are not deleted and are marked as current.
+   * Streams all items that are not deleted and are marked as current, ordered by ID. The rows are
+   * fetched from a database cursor in chunks, so the stream must be consumed within a transaction
+   * and closed afterwards.
    *
-   * @return an iterable collection of items that are not deleted and current
+   * @return a stream of items that are not deleted and current
    */
-  List<Item> findByDeletedFalseAndCurrentTrue();
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<Item> streamByDeletedFalseAndCurrentTrueOrderByIdAsc();
 
   /**
    * Finds all items with the specified parent ID that are not deleted and are marked as current.
@@ -65,4 +80,85 @@ public interface ItemRepository extends CrudRepository<Item, Long> {
    * @return an optional containing the item if found, otherwise empty
    */
   Optional<Item> findByIdEqualsAndDeletedFalseAndCurrentTrue(Long id);
+
+  /**
+   * Finds all current, non-deleted descendants of the items with the specified IDs with a single
+   * recursive query. The items themselves are not included unless they are descendants of one of
+   * the other items.
+   *
+   * @param ids the IDs of the items whose descendants to search for
+   * @return a list of all descendants that are not deleted and are current
+   */
+  @Query(
+      value =
+          """
+          WITH RECURSIVE descendants AS (
+            SELECT * FROM item
+            WHERE parent_id IN (:ids) AND current AND NOT deleted
+            UNION
+            SELECT child.* FROM item child
+            JOIN descendants parent ON child.parent_id = parent.id
+            WHERE child.current AND NOT child.deleted
+          )
+          SELECT * FROM descendants
+          """,
+      nativeQuery = true)
+  List<Item> findDescendantsByIdIn(@Param("ids") List<Long> ids);
+
+  /**
+   * Finds the IDs of all current, non-deleted descendants of the items with the specified IDs with
+   * a single recursive query.
+   *
+   * @param ids the IDs of the items whose descendants to search for
+   * @return a list of the IDs of all descendants that are not deleted and are current
+   */
+  @Query(
+      value =
+          """
+          WITH RECURSIVE descendants AS (
+            SELECT id FROM item
+            WHERE parent_id IN (:ids) AND current AND NOT deleted
+            UNION
+            SELECT child.id FROM item child
+            JOIN descendants parent ON child.parent_id = parent.id
+            WHERE child.current AND NOT child.deleted
+          )
+          SELECT id FROM descendants
+          """,
+      nativeQuery = true)
+  List<Long> findDescendantIdsByIdIn(@Param("ids") List<Long> ids);
+
+  /**
+   * Marks all versions of the items with the specified IDs as deleted with a single statement.
+   *
+   * @param ids the IDs of the items to mark as deleted
+   * @return the number of item versions marked as deleted
+   */
+  @Modifying
+  @Query("UPDATE Item i SET i.deleted = true WHERE i.id IN :ids AND i.deleted = false")
+  int markDeletedByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Finds all versions of an item, both those still in the item table and those moved to the item
+   * history by the archiver.
+   *
+   * @param id the ID of the item
+   * @return all versions of the item, newest first
+   */
+  @Query(
+      value =
+          """
+          SELECT id, version, category, current, deleted, description, floor_id, name, parent_id,
+                 quantity, zone_id
+          FROM item
+          WHERE id = :id
+          UNION ALL
+          SELECT id, version, category, current, deleted, description, floor_id, name, parent_id,
+                 quantity, zone_id
+          FROM item_history
+          WHERE id = :id
+          ORDER BY version DESC
+          """,
+      nativeQuery = true)
+  List<Item> findAllVersionsById(@Param("id") Long id);
 }
@@ -0,0 +1,88 @@
+package com.warehousemanager.itemmanagement.services;
+
+import com.warehousemanager.itemmanagement.ItemEventType;
+import com.warehousemanager.itemmanagement.ZoneMoveItemRequest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transactional outbox of item changes. Events are written in the same transaction as the change
+ * they describe, so an event is recorded if and only if the change is committed. The events are
+ * delivered to the furniture service later by {@link ItemEventRelay}.
+ */
+@Component
+public class ItemEventOutbox {
+  private final JdbcTemplate jdbcTemplate;
+
+  private static final String INSERT_EVENT =
+      """
+      INSERT INTO item_event (type, item_id, old_zone_id, new_zone_id, created_at)
+      VALUES (?, ?, ?, ?, now())
+      """;
+
+  /**
+   * Constructs an ItemEventOutbox with the specified dependencies.
+   *
+   * @param jdbcTemplate the JDBC template for writing the events
+   */
+  public ItemEventOutbox(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Records that an item was created.
+   *
+   * @param itemId the ID of the created item
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordCreated(Long itemId) {
+    jdbcTemplate.update(INSERT_EVENT, ItemEventType.CREATED.name(), itemId, null, null);
+  }
+
+  /**
+   * Records that items were moved between zone instances, with a single batch.
+   *
+   * @param moves the zone changes of the moved items
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordMoved(List<ZoneMoveItemRequest> moves) {
+    List<Object[]> rows = new ArrayList<>();
+    for (ZoneMoveItemRequest move : moves) {
+      rows.add(
+          new Object[] {
+            ItemEventType.MOVED.name(), move.itemId(), move.oldZoneId(), move.newZoneId()
+          });
+    }
+    insert(rows);
+  }
+
+  /**
+   * Records that items were deleted, with a single batch.
+   *
+   * @param itemIds the IDs of the deleted items
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordDeleted(Collection<Long> itemIds) {
+    List<Object[]> rows = new ArrayList<>();
+    for (Long itemId : itemIds) {
+      rows.add(new Object[] {ItemEventType.DELETED.name(), itemId, null, null});
+    }
+    insert(rows);
+  }
+
+  /**
+   * Inserts events as one JDBC batch.
+   *
+   * @param rows the type, item ID, old zone ID and new zone ID of every event
+   */
+  private void insert(List<Object[]> rows) {
+    if (!rows.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_EVENT, rows);
+    }
+  }
+}
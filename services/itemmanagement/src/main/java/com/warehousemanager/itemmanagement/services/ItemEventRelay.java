@@ -0,0 +1,135 @@
+package com.warehousemanager.itemmanagement.services;
+
+import com.warehousemanager.itemmanagement.ItemEvent;
+import com.warehousemanager.itemmanagement.ItemEventType;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Delivers the events recorded in the {@link ItemEventOutbox} to the furniture service in batches.
+ * Every batch is claimed and removed from the outbox in a transaction that only commits once the
+ * furniture service accepted the batch, so events are delivered at least once. Only one instance
+ * relays at a time, so the events of an item are always delivered in the order they were recorded.
+ */
+@Component
+public class ItemEventRelay {
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final RestClient restClient;
+  private final int batchSize;
+  private static final Logger logger = LoggerFactory.getLogger(ItemEventRelay.class);
+  private static final String FURNITURE_SERVICE_URL = "http://furniture-management";
+
+  private static final String LOCK_RELAY =
+      "SELECT pg_try_advisory_xact_lock(hashtext('item_event'))";
+  private static final String CLAIM_BATCH =
+      """
+      DELETE FROM item_event
+      WHERE id IN (
+        SELECT id FROM item_event
+        ORDER BY id
+        LIMIT ?
+      )
+      RETURNING id, type, item_id, old_zone_id, new_zone_id
+      """;
+
+  /**
+   * Constructs an ItemEventRelay with the specified settings.
+   *
+   * @param jdbcTemplate the JDBC template for claiming the events
+   * @param transactionManager the transaction manager for the claiming transactions
+   * @param restClientBuilder the RestClient builder for calling the furniture service
+   * @param batchSize the maximum number of events delivered with a single request
+   */
+  public ItemEventRelay(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      RestClient.Builder restClientBuilder,
+      @Value("${items.events.batch-size:500}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.restClient = restClientBuilder.build();
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Delivers all pending events. Stops at the first batch the furniture service does not accept;
+   * that batch stays in the outbox and is retried by the next run. Does nothing while another
+   * instance is relaying.
+   *
+   * @return the number of delivered events
+   */
+  @Scheduled(fixedDelayString = "${items.events.interval:PT1S}")
+  public int relay() {
+    int relayed = 0;
+    int delivered;
+    try {
+      do {
+        delivered = transactionTemplate.execute(status -> deliverBatch());
+        relayed += delivered;
+      } while (delivered == batchSize);
+    } catch (RestClientException e) {
+      logger.warn("Failed to deliver item events to the furniture service, will retry", e);
+    }
+    if (relayed > 0) {
+      logger.info("Delivered {} item events to the furniture service", relayed);
+    }
+    return relayed;
+  }
+
+  /**
+   * Claims the oldest pending events and delivers them with a single request. Must be called in a
+   * transaction, which removes the events from the outbox when it commits and holds the relay lock
+   * until then.
+   *
+   * @return the number of delivered events, or 0 if another instance is relaying
+   */
+  private int deliverBatch() {
+    if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(LOCK_RELAY, Boolean.class))) {
+      return 0;
+    }
+    List<ItemEvent> events =
+        new ArrayList<>(jdbcTemplate.query(CLAIM_BATCH, ItemEventRelay::toEvent, batchSize));
+    if (events.isEmpty()) {
+      return 0;
+    }
+    events.sort(Comparator.comparing(ItemEvent::id));
+    restClient
+        .post()
+        .uri(FURNITURE_SERVICE_URL + "/furniture/items/events")
+        .body(events)
+        .retrieve()
+        .toBodilessEntity();
+    return events.size();
+  }
+
+  /**
+   * Maps a claimed outbox row to an event.
+   *
+   * @param resultSet the result set positioned at the row
+   * @param rowNumber the number of the row
+   * @return the event
+   * @throws SQLException if a column cannot be read
+   */
+  private static ItemEvent toEvent(ResultSet resultSet, int rowNumber) throws SQLException {
+    return new ItemEvent(
+        resultSet.getLong("id"),
+        ItemEventType.valueOf(resultSet.getString("type")),
+        resultSet.getLong("item_id"),
+        resultSet.getObject("old_zone_id", Long.class),
+        resultSet.getObject("new_zone_id", Long.class));
+  }
+}
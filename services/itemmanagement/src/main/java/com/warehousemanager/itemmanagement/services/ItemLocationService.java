@@ -0,0 +1,197 @@
+package com.warehousemanager.itemmanagement.services;
+
+import com.warehousemanager.itemmanagement.MoveItemRequest;
+import com.warehousemanager.itemmanagement.ZoneInstanceLocation;
+import com.warehousemanager.itemmanagement.entities.ItemLocation;
+import com.warehousemanager.itemmanagement.repositories.ItemLocationRepository;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service maintaining the location index, which maps every placed item to its floor, zone
+ * instance, furniture instance and the position of that furniture instance. The index is updated
+ * incrementally with set-based statements whenever items are moved or deleted and whenever the
+ * furniture service reports the locations of zone instances. Reads never call other services.
+ */
+@Service
+public class ItemLocationService {
+  private final ItemLocationRepository itemLocationRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private static final Logger logger = LoggerFactory.getLogger(ItemLocationService.class);
+
+  private static final String UPSERT_LOCATIONS =
+      """
+      INSERT INTO item_location (item_id, floor_id, zone_instance_id, furniture_instance_id,
+                                 position_x, position_y, updated_at)
+      SELECT location.*, now()
+      FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::bigint[], ?::float8[], ?::float8[])
+          AS location
+      ON CONFLICT (item_id) DO UPDATE
+      SET floor_id = EXCLUDED.floor_id,
+          zone_instance_id = EXCLUDED.zone_instance_id,
+          furniture_instance_id = EXCLUDED.furniture_instance_id,
+          position_x = EXCLUDED.position_x,
+          position_y = EXCLUDED.position_y,
+          updated_at = EXCLUDED.updated_at
+      """;
+  private static final String UPDATE_ZONE_LOCATIONS =
+      """
+      UPDATE item_location
+      SET furniture_instance_id = zone.furniture_instance_id,
+          position_x = zone.position_x,
+          position_y = zone.position_y,
+          updated_at = now()
+      FROM unnest(?::bigint[], ?::bigint[], ?::float8[], ?::float8[])
+          AS zone(zone_instance_id, furniture_instance_id, position_x, position_y)
+      WHERE item_location.zone_instance_id = zone.zone_instance_id
+      """;
+  private static final String REMOVE_LOCATIONS =
+      "DELETE FROM item_location WHERE item_id = ANY(?::bigint[])";
+
+  /**
+   * Constructs an ItemLocationService with the specified dependencies.
+   *
+   * @param itemLocationRepository the repository for reading item locations
+   * @param jdbcTemplate the JDBC template for executing the set-based statements
+   */
+  public ItemLocationService(
+      ItemLocationRepository itemLocationRepository, JdbcTemplate jdbcTemplate) {
+    this.itemLocationRepository = itemLocationRepository;
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Retrieves the location of an item. The furniture instance and position are missing while the
+   * furniture service has not yet reported the location of the item's zone instance.
+   *
+   * @param itemId the ID of the item
+   * @return the location of the item
+   * @throws IllegalArgumentException if the item has no location
+   */
+  public ItemLocation getLocation(Long itemId) {
+    return itemLocationRepository
+        .findById(itemId)
+        .orElseThrow(() -> new IllegalArgumentException("Item location not found"));
+  }
+
+  /**
+   * Records the new floors and zone instances of moved items. The furniture instance and position
+   * are cleared until the furniture service has applied the move event and reports the location of
+   * the new zone instance, so that moving items does not wait for the furniture service. If an
+   * item is listed more than once, the last request for it applies.
+   *
+   * @param requests the move requests
+   */
+  @Transactional
+  public void recordMoves(List<MoveItemRequest> requests) {
+    Map<Long, MoveItemRequest> requestsByItemId = new LinkedHashMap<>();
+    for (MoveItemRequest request : requests) {
+      requestsByItemId.put(request.itemId(), request);
+    }
+    if (requestsByItemId.isEmpty()) {
+      return;
+    }
+
+    List<Object> itemIds = new ArrayList<>();
+    List<Object> floorIds = new ArrayList<>();
+    List<Object> zoneInstanceIds = new ArrayList<>();
+    List<Object> unknown = new ArrayList<>();
+    for (MoveItemRequest request : requestsByItemId.values()) {
+      itemIds.add(request.itemId());
+      floorIds.add(request.newFloorId());
+      zoneInstanceIds.add(request.newZoneId());
+      unknown.add(null);
+    }
+    jdbcTemplate.update(
+        UPSERT_LOCATIONS,
+        preparedStatement -> {
+          setArray(preparedStatement, 1, "bigint", itemIds);
+          setArray(preparedStatement, 2, "bigint", floorIds);
+          setArray(preparedStatement, 3, "bigint", zoneInstanceIds);
+          setArray(preparedStatement, 4, "bigint", unknown);
+          setArray(preparedStatement, 5, "float8", unknown);
+          setArray(preparedStatement, 6, "float8", unknown);
+        });
+    logger.info("Recorded locations of {} moved items", itemIds.size());
+  }
+
+  /**
+   * Updates the furniture instance and position of all items stored in the given zone instances,
+   * with a single statement.
+   *
+   * @param zoneLocations the new locations of the zone instances
+   * @return the number of updated item locations
+   */
+  @Transactional
+  public int updateZoneLocations(List<ZoneInstanceLocation> zoneLocations) {
+    if (zoneLocations.isEmpty()) {
+      return 0;
+    }
+    List<Object> zoneInstanceIds = new ArrayList<>();
+    List<Object> furnitureInstanceIds = new ArrayList<>();
+    List<Object> positionsX = new ArrayList<>();
+    List<Object> positionsY = new ArrayList<>();
+    for (ZoneInstanceLocation zoneLocation : zoneLocations) {
+      zoneInstanceIds.add(zoneLocation.zoneInstanceId());
+      furnitureInstanceIds.add(zoneLocation.furnitureInstanceId());
+      positionsX.add(zoneLocation.positionX());
+      positionsY.add(zoneLocation.positionY());
+    }
+    int updated =
+        jdbcTemplate.update(
+            UPDATE_ZONE_LOCATIONS,
+            preparedStatement -> {
+              setArray(preparedStatement, 1, "bigint", zoneInstanceIds);
+              setArray(preparedStatement, 2, "bigint", furnitureInstanceIds);
+              setArray(preparedStatement, 3, "float8", positionsX);
+              setArray(preparedStatement, 4, "float8", positionsY);
+            });
+    logger.info(
+        "Updated {} item locations in {} moved zone instances", updated, zoneLocations.size());
+    return updated;
+  }
+
+  /**
+   * Removes the locations of items, e.g. because they were deleted.
+   *
+   * @param itemIds the IDs of the items
+   */
+  @Transactional
+  public void removeLocations(Collection<Long> itemIds) {
+    if (itemIds.isEmpty()) {
+      return;
+    }
+    List<Object> ids = List.copyOf(itemIds);
+    int removed =
+        jdbcTemplate.update(
+            REMOVE_LOCATIONS, preparedStatement -> setArray(preparedStatement, 1, "bigint", ids));
+    logger.info("Removed {} item locations", removed);
+  }
+
+  /**
+   * Binds a list of values as a PostgreSQL array parameter.
+   *
+   * @param preparedStatement the statement to bind the parameter to
+   * @param index the index of the parameter
+   * @param type the PostgreSQL element type
+   * @param values the values, possibly containing nulls
+   * @throws SQLException if the array cannot be created
+   */
+  private static void setArray(
+      PreparedStatement preparedStatement, int index, String type, List<Object> values)
+      throws SQLException {
+    Connection connection = preparedStatement.getConnection();
+    preparedStatement.setArray(index, connection.createArrayOf(type, values.toArray()));
+  }
+}
@@ -1,10 +1,25 @@
 package com.warehousemanager.itemmanagement.services;
 
+import com.warehousemanager.itemmanagement.ItemFilter;
 import com.warehousemanager.itemmanagement.ItemResponseDataTransferObject;
+import com.warehousemanager.itemmanagement.MoveItemRequest;
+import com.warehousemanager.itemmanagement.ZoneMoveItemRequest;
 import com.warehousemanager.itemmanagement.entities.Item;
 import com.warehousemanager.itemmanagement.repositories.ItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,14 +28,18 @@ import org.springframework.transaction.annotation.Transactional;
 public class ItemService {
   // Repository for managing Item entities
   private final ItemRepository itemRepository;
+  // Entity manager for inserting new item versions without a prior lookup
+  private final EntityManager entityManager;
 
   /**
    * Constructor for ItemService.
    *
    * @param itemRepository the repository for managing Item entities
+   * @param entityManager the entity manager for inserting new item versions
    */
-  public ItemService(ItemRepository itemRepository) {
+  public ItemService(ItemRepository itemRepository, EntityManager entityManager) {
     this.itemRepository = itemRepository;
+    this.entityManager = entityManager;
   }
 
   /**
@@ -34,23 +53,198 @@ public class ItemService {
   }
 
   /**
-   * Moves a child item to a new parent item.
+   * Moves items to new zones, floors and parents by creating a new version of every item. All
+   * items and new parents are loaded with one query each and the new versions are written in JDBC
+   * batches. If an item is listed more than once, the last request for it applies.
    *
-   * @param childItem the child item to be moved
-   * @param newParentItem the new parent item
+   * @param requests the move requests
+   * @return the zone changes to apply in the furniture service, one per moved item
+   * @throws IllegalArgumentException if one of the items does not exist
    */
   @Transactional
-  public void moveChildToNewParent(Item childItem, Item newParentItem) {
-    childItem.setParentId(newParentItem.getId());
+  public List<ZoneMoveItemRequest> moveItems(List<MoveItemRequest> requests) {
+    Map<Long, MoveItemRequest> requestsByItemId = new LinkedHashMap<>();
+    for (MoveItemRequest request : requests) {
+      requestsByItemId.put(request.itemId(), request);
+    }
+    Map<Long, Item> items = new HashMap<>();
+    for (Item item :
+        itemRepository.findByIdInAndDeletedFalseAndCurrentTrue(
+            List.copyOf(requestsByItemId.keySet()))) {
+      items.put(item.getId(), item);
+    }
+    List<Long> newParentIds =
+        requestsByItemId.values().stream()
+            .map(MoveItemRequest::newParentId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+    Set<Long> existingParentIds = new HashSet<>();
+    if (!newParentIds.isEmpty()) {
+      for (Item parent : itemRepository.findByIdInAndDeletedFalseAndCurrentTrue(newParentIds)) {
+        existingParentIds.add(parent.getId());
+      }
+    }
+
+    List<ZoneMoveItemRequest> zoneRequests = new ArrayList<>();
+    for (MoveItemRequest request : requestsByItemId.values()) {
+      Item item = items.get(request.itemId());
+      if (item == null) {
+        throw new IllegalArgumentException("Item not found: " + request.itemId());
+      }
+      Item newItem = new Item(item);
+      newItem.setZoneId(request.newZoneId());
+      newItem.setFloorId(request.newFloorId());
+      newItem.setParentId(
+          existingParentIds.contains(request.newParentId()) ? request.newParentId() : null);
+      item.setCurrent(false);
+      entityManager.persist(newItem);
+      zoneRequests.add(
+          new ZoneMoveItemRequest(item.getId(), item.getZoneId(), request.newZoneId()));
+    }
+    return zoneRequests;
   }
 
   /**
-   * Converts an Item entity to an ItemResponseDataTransferObject.
+   * Converts an Item entity to an ItemResponseDataTransferObject, including all its descendants.
    *
    * @param item the Item entity to convert
    * @return the corresponding ItemResponseDataTransferObject
    */
   public ItemResponseDataTransferObject convertToDto(Item item) {
+    return convertToDtos(List.of(item)).get(0);
+  }
+
+  /**
+   * Converts Item entities to ItemResponseDataTransferObjects. The descendants of all items are
+   * loaded with a single query.
+   *
+   * @param items the Item entities to convert
+   * @return the corresponding ItemResponseDataTransferObjects, in the same order as the items
+   */
+  public List<ItemResponseDataTransferObject> convertToDtos(List<Item> items) {
+    if (items.isEmpty()) {
+      return List.of();
+    }
+    List<Long> ids = items.stream().map(Item::getId).distinct().toList();
+    return assembleDtos(items, itemRepository.findDescendantsByIdIn(ids));
+  }
+
+  /**
+   * Converts Item entities to ItemResponseDataTransferObjects without their descendants, whose
+   * children are left null.
+   *
+   * @param items the Item entities to convert
+   * @return the corresponding ItemResponseDataTransferObjects, in the same order as the items
+   */
+  public List<ItemResponseDataTransferObject> convertToShallowDtos(List<Item> items) {
+    return items.stream().map(item -> toDto(item, null)).toList();
+  }
+
+  /**
+   * Finds a page of current, non-deleted items matching the given filters, ordered by ID. Only the
+   * filters that are set become part of the query, so a page filtered by a single column is read
+   * from the partial index on that column and the ID, starting right after the cursor.
+   *
+   * @param filter the filters the items must match
+   * @param afterId the ID after which the page starts
+   * @param limit the maximum number of items in the page
+   * @return the items of the page, ordered by ID
+   */
+  public List<Item> findPage(ItemFilter filter, Long afterId, int limit) {
+    Specification<Item> specification =
+        (root, query, builder) -> {
+          List<Predicate> predicates = new ArrayList<>();
+          predicates.add(builder.isTrue(root.get("current")));
+          predicates.add(builder.isFalse(root.get("deleted")));
+          predicates.add(builder.greaterThan(root.get("id"), afterId));
+          if (filter.category() != null) {
+            predicates.add(builder.equal(root.get("category"), filter.category()));
+          }
+          if (filter.floorId() != null) {
+            predicates.add(builder.equal(root.get("floorId"), filter.floorId()));
+          }
+          if (filter.zoneId() != null) {
+            predicates.add(builder.equal(root.get("zoneId"), filter.zoneId()));
+          }
+          if (filter.parentId() != null) {
+            predicates.add(builder.equal(root.get("parentId"), filter.parentId()));
+          }
+          return builder.and(predicates.toArray(new Predicate[0]));
+        };
+    return itemRepository.findBy(
+        specification, page -> page.sortBy(Sort.by("id")).limit(limit).all());
+  }
+
+  /**
+   * Assembles the item trees in memory. Every subtree is built only once and shared between the
+   * trees it belongs to.
+   *
+   * @param items the Item entities to convert
+   * @param descendants the current, non-deleted items the children are taken from
+   * @return the corresponding ItemResponseDataTransferObjects, in the same order as the items
+   */
+  private List<ItemResponseDataTransferObject> assembleDtos(
+      List<Item> items, Collection<Item> descendants) {
+    Map<Long, List<Item>> childrenByParentId = new HashMap<>();
+    Set<Long> seenIds = new HashSet<>();
+    for (Item descendant : descendants) {
+      if (descendant.getParentId() != null && seenIds.add(descendant.getId())) {
+        childrenByParentId
+            .computeIfAbsent(descendant.getParentId(), parentId -> new ArrayList<>())
+            .add(descendant);
+      }
+    }
+    Map<Long, ItemResponseDataTransferObject> subtrees = new HashMap<>();
+    List<ItemResponseDataTransferObject> dtos = new ArrayList<>();
+    for (Item item : items) {
+      dtos.add(buildDto(item, childrenByParentId, subtrees, new HashSet<>()));
+    }
+    return dtos;
+  }
+
+  /**
+   * Builds the ItemResponseDataTransferObject of a single item from the already loaded children.
+   *
+   * @param item the Item entity to convert
+   * @param childrenByParentId the loaded children keyed by the ID of their parent
+   * @param subtrees the already built subtrees keyed by the ID of their root item
+   * @param ancestorIds the IDs of the items on the path to this item, used to break cycles
+   * @return the corresponding ItemResponseDataTransferObject
+   */
+  private ItemResponseDataTransferObject buildDto(
+      Item item,
+      Map<Long, List<Item>> childrenByParentId,
+      Map<Long, ItemResponseDataTransferObject> subtrees,
+      Set<Long> ancestorIds) {
+    ItemResponseDataTransferObject subtree = subtrees.get(item.getId());
+    if (subtree != null && item.getVersion().equals(subtree.version())) {
+      return subtree;
+    }
+    ancestorIds.add(item.getId());
+    List<ItemResponseDataTransferObject> children = new ArrayList<>();
+    for (Item child : childrenByParentId.getOrDefault(item.getId(), List.of())) {
+      if (!ancestorIds.contains(child.getId())) {
+        children.add(buildDto(child, childrenByParentId, subtrees, ancestorIds));
+      }
+    }
+    ancestorIds.remove(item.getId());
+    ItemResponseDataTransferObject dto = toDto(item, children);
+    if (item.getCurrent()) {
+      subtrees.put(item.getId(), dto);
+    }
+    return dto;
+  }
+
+  /**
+   * Creates the ItemResponseDataTransferObject of a single item.
+   *
+   * @param item the Item entity to convert
+   * @param children the converted children of the item, or null to omit them
+   * @return the corresponding ItemResponseDataTransferObject
+   */
+  private static ItemResponseDataTransferObject toDto(
+      Item item, List<ItemResponseDataTransferObject> children) {
     return new ItemResponseDataTransferObject(
         item.getId(),
         item.getVersion(),
@@ -62,29 +256,22 @@ public class ItemService {
         item.getFloorId(),
         item.getZoneId(),
         item.getParentId(),
-        getItemChildren(item.getId()).stream().map(this::convertToDto).toList());
+        children);
   }
 
   /**
-   * Recursively marks an item and all its children as deleted. Additionally, it marks all previous
-   * versions of each item as deleted.
+   * Marks an item and all its descendants as deleted, including all their previous versions. The
+   * descendants are found with a single recursive query and marked with a single update.
    *
-   * @param item the item to be marked as deleted along with its children
+   * @param id the ID of the item to be marked as deleted along with its descendants
+   * @return the IDs of the item and all its descendants
    */
-  public void deleteChildren(Item item, Set<Long> visitedIds) {
-    if (visitedIds.contains(item.getId())) {
-      return;
-    }
-    visitedIds.add(item.getId());
-    for (Item child : getItemChildren(item.getId())) {
-      List<Item> childItems =
-          itemRepository.findByIdEqualsAndDeletedFalseOrderByVersionDesc(child.getId());
-      for (Item childItem : childItems) {
-        childItem.setDeleted(true);
-        itemRepository.save(childItem);
-      }
-
-      deleteChildren(child, visitedIds);
-    }
+  @Transactional
+  public Set<Long> deleteWithDescendants(Long id) {
+    Set<Long> deletedIds = new LinkedHashSet<>();
+    deletedIds.add(id);
+    deletedIds.addAll(itemRepository.findDescendantIdsByIdIn(List.of(id)));
+    itemRepository.markDeletedByIdIn(deletedIds);
+    return deletedIds;
   }
 }
@@ -0,0 +1,75 @@
+package com.warehousemanager.itemmanagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.warehousemanager.itemmanagement.services.ItemArchiver;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Checks that old item versions spread over several months are moved into the item history in
+ * batches, creating the monthly partitions they need on the way.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ItemArchiverTests {
+  @Container
+  private static final PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:17")
+          .withUsername("postgres")
+          .withCopyFileToContainer(
+              MountableFile.forHostPath("init-db.sql"), "/docker-entrypoint-initdb.d/init-db.sql");
+
+  private JdbcTemplate jdbcTemplate;
+  private ItemArchiver archiver;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("TRUNCATE item, item_history");
+    archiver =
+        new ItemArchiver(
+            jdbcTemplate, new DataSourceTransactionManager(dataSource), Duration.ofDays(30), 7);
+  }
+
+  @Test
+  void movesOldVersionsIntoMonthlyPartitions() {
+    // 10 items with 12 versions each, one every 10 days; only the newest version is current
+    jdbcTemplate.execute(
+        """
+        INSERT INTO item (id, version, current, deleted, name)
+        SELECT item_id, now() - (12 - revision) * interval '10 days', revision = 12, false,
+               'Item ' || item_id
+        FROM generate_series(1, 10) AS item_id, generate_series(1, 12) AS revision
+        """);
+    int expected =
+        jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM item WHERE NOT current AND version < now() - interval '30 days'",
+            Integer.class);
+
+    assertEquals(expected, archiver.archive());
+
+    assertEquals(expected, count("SELECT count(*) FROM item_history"));
+    assertEquals(120 - expected, count("SELECT count(*) FROM item"));
+    assertEquals(
+        count(
+            "SELECT count(DISTINCT date_trunc('month', version AT TIME ZONE 'UTC'))"
+                + " FROM item_history"),
+        count("SELECT count(*) FROM pg_inherits WHERE inhparent = 'item_history'::regclass"));
+    assertEquals(0, archiver.archive());
+  }
+
+  private int count(String query) {
+    return jdbcTemplate.queryForObject(query, Integer.class);
+  }
+}
@@ -0,0 +1,124 @@
+package com.warehousemanager.itemmanagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.warehousemanager.itemmanagement.services.ItemEventOutbox;
+import com.warehousemanager.itemmanagement.services.ItemEventRelay;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Checks that item events recorded in the outbox are delivered to the furniture service in order,
+ * stay in the outbox until the furniture service accepts them, and are only relayed by one
+ * instance at a time.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ItemEventRelayTests {
+  @Container
+  private static final PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:17")
+          .withUsername("postgres")
+          .withCopyFileToContainer(
+              MountableFile.forHostPath("init-db.sql"), "/docker-entrypoint-initdb.d/init-db.sql");
+
+  private static final String EVENTS_URL = "http://furniture-management/furniture/items/events";
+
+  private DataSource dataSource;
+  private JdbcTemplate jdbcTemplate;
+  private ItemEventOutbox outbox;
+  private ItemEventRelay relay;
+  private MockRestServiceServer furnitureService;
+
+  @BeforeEach
+  void setUp() {
+    dataSource =
+        new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("TRUNCATE item_event");
+    RestClient.Builder restClientBuilder = RestClient.builder();
+    furnitureService = MockRestServiceServer.bindTo(restClientBuilder).build();
+    outbox = new ItemEventOutbox(jdbcTemplate);
+    relay =
+        new ItemEventRelay(
+            jdbcTemplate, new DataSourceTransactionManager(dataSource), restClientBuilder, 2);
+  }
+
+  @Test
+  void deliversEventsInBatchesInTheOrderTheyWereRecorded() {
+    outbox.recordCreated(1L);
+    outbox.recordMoved(List.of(new ZoneMoveItemRequest(1L, null, 10L)));
+    outbox.recordDeleted(List.of(1L));
+    furnitureService
+        .expect(requestTo(EVENTS_URL))
+        .andExpect(method(HttpMethod.POST))
+        .andExpect(
+            content()
+                .json(
+                    """
+                    [{"type": "CREATED", "itemId": 1},
+                     {"type": "MOVED", "itemId": 1, "oldZoneId": null, "newZoneId": 10}]
+                    """))
+        .andRespond(withSuccess());
+    furnitureService
+        .expect(requestTo(EVENTS_URL))
+        .andExpect(content().json("[{\"type\": \"DELETED\", \"itemId\": 1}]"))
+        .andRespond(withSuccess());
+
+    assertEquals(3, relay.relay());
+
+    furnitureService.verify();
+    assertEquals(0, countPendingEvents());
+  }
+
+  @Test
+  void keepsEventsTheFurnitureServiceDidNotAccept() {
+    outbox.recordDeleted(List.of(1L, 2L));
+    furnitureService.expect(requestTo(EVENTS_URL)).andRespond(withServerError());
+
+    assertEquals(0, relay.relay());
+
+    furnitureService.verify();
+    assertEquals(2, countPendingEvents());
+  }
+
+  @Test
+  void leavesEventsToTheInstanceAlreadyRelaying() throws Exception {
+    outbox.recordCreated(1L);
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      connection.setAutoCommit(false);
+      statement.execute("SELECT pg_advisory_xact_lock(hashtext('item_event'))");
+
+      assertEquals(0, relay.relay());
+
+      connection.rollback();
+    }
+
+    furnitureService.verify();
+    assertEquals(1, countPendingEvents());
+  }
+
+  private int countPendingEvents() {
+    return jdbcTemplate.queryForObject("SELECT count(*) FROM item_event", Integer.class);
+  }
+}
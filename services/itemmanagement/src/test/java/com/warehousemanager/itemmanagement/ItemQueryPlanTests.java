@@ -0,0 +1,97 @@
+package com.warehousemanager.itemmanagement;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Checks that the hot item queries are answered from an index on a dataset with many old and
+ * deleted versions. The schema is created from init-db.sql exactly as in docker-compose.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ItemQueryPlanTests {
+  @Container
+  private static final PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:17")
+          .withUsername("postgres")
+          .withCopyFileToContainer(
+              MountableFile.forHostPath("init-db.sql"), "/docker-entrypoint-initdb.d/init-db.sql");
+
+  @BeforeAll
+  static void seed() throws SQLException {
+    try (Connection connection = connect();
+        Statement statement = connection.createStatement()) {
+      statement.execute(
+          """
+          INSERT INTO item (id, version, current, deleted, name, parent_id, zone_id, floor_id,
+                            category)
+          SELECT item_id,
+                 now() - (4 - revision) * interval '1 hour',
+                 revision = 4,
+                 item_id % 20 = 0,
+                 'Item ' || item_id,
+                 CASE WHEN item_id > 100 THEN item_id / 10 END,
+                 item_id % 1000,
+                 CASE WHEN item_id % 100 <> 0 THEN item_id % 25 + 1 END,
+                 CASE
+                   WHEN item_id % 40 = 0 THEN 'Tools'
+                   WHEN item_id % 7 <> 0 THEN 'Category ' || item_id % 40
+                 END
+          FROM generate_series(1, 20000) AS item_id, generate_series(1, 4) AS revision
+          """);
+      statement.execute("ANALYZE item");
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "SELECT * FROM item WHERE id = 4242 AND deleted = false AND current = true",
+        "SELECT * FROM item WHERE id IN (1, 2, 3, 4, 5) AND deleted = false AND current = true",
+        "SELECT * FROM item WHERE parent_id = 424 AND deleted = false AND current = true",
+        "SELECT * FROM item WHERE zone_id = 42 AND deleted = false AND current = true",
+        "SELECT * FROM item WHERE id = 4242 AND deleted = false ORDER BY version DESC",
+        "SELECT * FROM item WHERE current = true AND deleted = false AND id > 10000"
+            + " ORDER BY id LIMIT 50",
+        "SELECT * FROM item WHERE current = true AND deleted = false AND id > 100"
+            + " AND zone_id = 42 ORDER BY id LIMIT 50",
+        "SELECT * FROM item WHERE current = true AND deleted = false AND id > 100"
+            + " AND parent_id = 424 ORDER BY id LIMIT 50",
+        "SELECT * FROM item WHERE current = true AND deleted = false AND id > 100"
+            + " AND category = 'Tools' ORDER BY id LIMIT 50",
+        "SELECT * FROM item WHERE current = true AND deleted = false AND id > 100"
+            + " AND floor_id = 7 ORDER BY id LIMIT 50"
+      })
+  void hotQueryDoesNotScanTheWholeTable(String query) throws SQLException {
+    String plan = explain(query);
+    assertFalse(plan.contains("Seq Scan"), () -> "Sequential scan for " + query + "\n" + plan);
+  }
+
+  private static String explain(String query) throws SQLException {
+    StringBuilder plan = new StringBuilder();
+    try (Connection connection = connect();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("EXPLAIN " + query)) {
+      while (resultSet.next()) {
+        plan.append(resultSet.getString(1)).append('\n');
+      }
+    }
+    return plan.toString();
+  }
+
+  private static Connection connect() throws SQLException {
+    return DriverManager.getConnection(
+        postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+  }
+}
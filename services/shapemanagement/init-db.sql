@@ -5,7 +5,7 @@ CREATE SEQUENCE IF NOT EXISTS shapes_id_seq START 5;
 -- DROP SEQUENCE IF EXISTS public.shape_instance_seq;
 
 CREATE SEQUENCE IF NOT EXISTS public.shape_instance_seq
-    INCREMENT 1
+    INCREMENT 50
     START 5
     MINVALUE 5
     MAXVALUE 9223372036854775807
@@ -37,6 +37,35 @@ TABLESPACE pg_default;
 ALTER TABLE IF EXISTS public.shape
     OWNER to postgres;
 
+-- Index: shape_current_id_idx
+
+-- DROP INDEX IF EXISTS public.shape_current_id_idx;
+
+CREATE INDEX IF NOT EXISTS shape_current_id_idx
+    ON public.shape USING btree
+    (id ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE current AND NOT deleted;
+
+-- Table: public.shape_history
+
+-- DROP TABLE IF EXISTS public.shape_history;
+
+CREATE TABLE IF NOT EXISTS public.shape_history
+(
+    id bigint NOT NULL,
+    version timestamp(6) with time zone NOT NULL,
+    current boolean NOT NULL,
+    deleted boolean NOT NULL,
+    is_public boolean NOT NULL,
+    name character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    type character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    CONSTRAINT shape_history_pkey PRIMARY KEY (id, version)
+) PARTITION BY RANGE (version);
+
+ALTER TABLE IF EXISTS public.shape_history
+    OWNER to postgres;
+
 -- Table: public.shape_instance
 
 -- DROP TABLE IF EXISTS public.shape_instance;
@@ -56,6 +85,16 @@ TABLESPACE pg_default;
 ALTER TABLE IF EXISTS public.shape_instance
     OWNER to postgres;
 
+-- Index: shape_instance_template_idx
+
+-- DROP INDEX IF EXISTS public.shape_instance_template_idx;
+
+CREATE INDEX IF NOT EXISTS shape_instance_template_idx
+    ON public.shape_instance USING btree
+    (shape_id ASC NULLS LAST, shape_version ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE is_template;
+
 ------------------------------ RECTANGLE --------------------------------
 
 INSERT INTO public.shape (
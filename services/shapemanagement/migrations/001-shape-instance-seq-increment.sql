@@ -0,0 +1,5 @@
+-- Upgrades databases created from an init-db.sql where shape_instance_seq was incremented by 1.
+-- Hibernate now reserves 50 IDs per call to nextval and hands them out from memory.
+
+ALTER SEQUENCE IF EXISTS public.shape_instance_seq
+    INCREMENT 50;
@@ -0,0 +1,14 @@
+-- Adds a partial index on current, non-deleted shapes and one on template shape instances, which
+-- are the only rows the shape and latest template lookups read.
+-- CONCURRENTLY keeps the tables writable meanwhile, so this script must not run inside a
+-- transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS shape_current_id_idx
+    ON public.shape USING btree
+    (id ASC NULLS LAST)
+    WHERE current AND NOT deleted;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS shape_instance_template_idx
+    ON public.shape_instance USING btree
+    (shape_id ASC NULLS LAST, shape_version ASC NULLS LAST)
+    WHERE is_template;
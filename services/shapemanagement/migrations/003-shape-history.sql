@@ -0,0 +1,21 @@
+-- Adds the history table that non-current shape versions are archived into. Its monthly
+-- partitions are created by the archiver on demand.
+
+-- Table: public.shape_history
+
+-- DROP TABLE IF EXISTS public.shape_history;
+
+CREATE TABLE IF NOT EXISTS public.shape_history
+(
+    id bigint NOT NULL,
+    version timestamp(6) with time zone NOT NULL,
+    current boolean NOT NULL,
+    deleted boolean NOT NULL,
+    is_public boolean NOT NULL,
+    name character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    type character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    CONSTRAINT shape_history_pkey PRIMARY KEY (id, version)
+) PARTITION BY RANGE (version);
+
+ALTER TABLE IF EXISTS public.shape_history
+    OWNER to postgres;
@@ -1,5 +1,9 @@
 package com.warehousemanager.shapemanagement.controller;
 
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.warehousemanager.shapemanagement.Instruction;
 import com.warehousemanager.shapemanagement.ShapeDataTransferObject;
 import com.warehousemanager.shapemanagement.ShapeDtoMapper;
@@ -11,50 +15,124 @@ import com.warehousemanager.shapemanagement.entities.ShapeInstance;
 import com.warehousemanager.shapemanagement.exceptions.ShapeTemplateDoesNotExistException;
 import com.warehousemanager.shapemanagement.repositories.ShapeInstanceRepository;
 import com.warehousemanager.shapemanagement.repositories.ShapeRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /** Controller for managing shapes in the warehouse management system. */
 @RestController
 public class ShapeManagementController {
   private final ShapeRepository shapeRepository;
   private final ShapeInstanceRepository shapeInstanceRepository;
+  private final ObjectMapper objectMapper;
+  private final EntityManager entityManager;
+  private final TransactionTemplate readOnlyTransaction;
   private static final Logger logger = LoggerFactory.getLogger(ShapeManagementController.class);
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final int MAX_PAGE_SIZE = 1000;
 
   /**
    * Constructs a ShapeManagementController with the specified repositories.
    *
    * @param shapeRepository the repository for managing shape entities
    * @param shapeInstanceRepository the repository for managing shape instance entities
+   * @param objectMapper the mapper for writing streamed JSON responses
+   * @param entityManager the entity manager for detaching streamed shapes once they are written
+   * @param transactionManager the transaction manager for the transactions shapes are streamed in
    */
   public ShapeManagementController(
-      ShapeRepository shapeRepository, ShapeInstanceRepository shapeInstanceRepository) {
+      ShapeRepository shapeRepository,
+      ShapeInstanceRepository shapeInstanceRepository,
+      ObjectMapper objectMapper,
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager) {
     this.shapeRepository = shapeRepository;
     this.shapeInstanceRepository = shapeInstanceRepository;
+    this.objectMapper = objectMapper;
+    this.entityManager = entityManager;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
   }
 
   /**
-   * Retrieves all shapes from the shape management service.
+   * Retrieves all shapes from the shape management service. The shapes are read from a database
+   * cursor and written to the response one by one, so the heap use does not grow with the number
+   * of shapes.
    *
-   * @return an iterable collection of all shapes
+   * @return the shapes as a JSON array, ordered by ID
    */
   @GetMapping("/shapes")
-  public List<Shape> getAllShapes() {
-    logger.info("Fetching all shapes");
-    List<Shape> shapes = shapeRepository.findByCurrentTrueAndDeletedFalse();
-    logger.info("Total shapes found: {}", shapes.size());
-    return shapes;
+  public ResponseEntity<StreamingResponseBody> getAllShapes() {
+    logger.info("Streaming all shapes");
+    StreamingResponseBody body =
+        outputStream ->
+            readOnlyTransaction.executeWithoutResult(
+                status -> {
+                  try (Stream<Shape> shapes =
+                          shapeRepository.streamByCurrentTrueAndDeletedFalseOrderByIdAsc();
+                      JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.writeStartArray();
+                    Iterator<Shape> iterator = shapes.iterator();
+                    while (iterator.hasNext()) {
+                      Shape shape = iterator.next();
+                      generator.writePOJO(shape);
+                      entityManager.detach(shape);
+                    }
+                    generator.writeEndArray();
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+    return ResponseEntity.ok().contentType(APPLICATION_JSON).body(body);
+  }
+
+  /**
+   * Retrieves a page of shapes using keyset pagination. If the page is full, the ID to pass as
+   * {@code afterId} for the next page is returned in the X-Next-Cursor header.
+   *
+   * @param afterId the ID after which the page starts, 0 for the first page
+   * @param limit the maximum number of shapes in the page
+   * @return the shapes of the page, ordered by ID
+   */
+  @GetMapping(value = "/shapes", params = "limit")
+  public ResponseEntity<List<Shape>> getShapePage(
+      @RequestParam(defaultValue = "0") Long afterId, @RequestParam int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    List<Shape> shapes =
+        shapeRepository.findByIdGreaterThanAndCurrentTrueAndDeletedFalseOrderByIdAsc(
+            afterId, Limit.of(limit));
+    logger.info("Shapes found after ID {}: {}", afterId, shapes.size());
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (shapes.size() == limit) {
+      response.header(NEXT_CURSOR_HEADER, String.valueOf(shapes.get(shapes.size() - 1).getId()));
+    }
+    return response.body(shapes);
   }
 
   /**
@@ -105,6 +183,21 @@ public class ShapeManagementController {
     return shape;
   }
 
+  /**
+   * Retrieves all versions of a shape, including archived ones.
+   *
+   * @param id the ID of the shape
+   * @return the versions of the shape, newest first
+   */
+  @GetMapping("/shapes/{id}/history")
+  public List<Shape> getShapeHistory(@PathVariable Long id) {
+    List<Shape> versions = shapeRepository.findAllVersionsById(id);
+    if (versions.isEmpty()) {
+      throw new IllegalArgumentException("Shape not found with ID: " + id);
+    }
+    return versions;
+  }
+
   /**
    * Updates an existing shape with new data.
    *
@@ -212,6 +305,74 @@ public class ShapeManagementController {
         shapeInstance.getInstructions());
   }
 
+  /**
+   * Retrieves multiple shape instances by their IDs in a single request.
+   *
+   * @param ids the unique identifiers of the shape instances
+   * @return the shape instances with the specified IDs, in the order they were requested
+   */
+  @GetMapping("/shapes/instances/batch")
+  public List<ShapeInstanceResponseDataTransferObject> getShapeInstances(
+      @RequestParam List<Long> ids) {
+    logger.info("Fetching {} shape instances in batch", ids.size());
+    return findShapeInstances(ids);
+  }
+
+  /**
+   * Retrieves multiple shape instances by their IDs passed in the request body. Intended for ID
+   * lists that are too long to be passed as a query parameter.
+   *
+   * @param ids the unique identifiers of the shape instances
+   * @return the shape instances with the specified IDs, in the order they were requested
+   */
+  @PostMapping("/shapes/instances/batch/query")
+  public List<ShapeInstanceResponseDataTransferObject> queryShapeInstances(
+      @RequestBody List<Long> ids) {
+    logger.info("Querying {} shape instances in batch", ids.size());
+    return findShapeInstances(ids);
+  }
+
+  /**
+   * Loads the shape instances with the given IDs together with their current shapes. The instances
+   * are loaded with a single query and every distinct shape is looked up only once.
+   *
+   * @param ids the unique identifiers of the shape instances
+   * @return the shape instances with the specified IDs, without duplicates, in the requested order
+   */
+  private List<ShapeInstanceResponseDataTransferObject> findShapeInstances(List<Long> ids) {
+    List<Long> distinctIds = ids.stream().distinct().toList();
+    Map<Long, ShapeInstance> shapeInstances = new HashMap<>();
+    for (ShapeInstance shapeInstance : shapeInstanceRepository.findAllById(distinctIds)) {
+      shapeInstances.put(shapeInstance.getId(), shapeInstance);
+    }
+    if (shapeInstances.size() != distinctIds.size()) {
+      List<Long> missingIds =
+          distinctIds.stream().filter(id -> !shapeInstances.containsKey(id)).toList();
+      throw new RuntimeException("Shape instances not found with IDs: " + missingIds);
+    }
+
+    List<Long> shapeIds =
+        shapeInstances.values().stream().map(ShapeInstance::getShapeId).distinct().toList();
+    Map<Long, Shape> shapes = new HashMap<>();
+    for (Shape shape : shapeRepository.findByIdInAndDeletedFalseAndCurrentTrue(shapeIds)) {
+      shapes.put(shape.getId(), shape);
+    }
+
+    List<ShapeInstanceResponseDataTransferObject> responseDtos = new ArrayList<>();
+    for (Long id : distinctIds) {
+      ShapeInstance shapeInstance = shapeInstances.get(id);
+      responseDtos.add(
+          new ShapeInstanceResponseDataTransferObject(
+              shapeInstance.getId(),
+              shapes.get(shapeInstance.getShapeId()),
+              shapeInstance.getShapeVersion(),
+              shapeInstance.isTemplate(),
+              shapeInstance.getInstructions()));
+    }
+    logger.info("Found {} shape instances", responseDtos.size());
+    return responseDtos;
+  }
+
   @PostMapping("/shapes/instances")
   public ShapeInstanceResponseDataTransferObject createShapeInstance(
       @Valid @RequestBody ShapeInstanceDataTransferObject shapeInstanceDataTransferObject) {
@@ -256,17 +417,25 @@ public class ShapeManagementController {
     logger.info("Creating shape instances in batch");
 
     logger.info("ShapeInstanceDataTransferObjects: {}", shapeInstanceDataTransferObjects);
+    List<Long> shapeIds = new ArrayList<>();
+    for (ShapeInstanceDataTransferObject shapeInstanceDataTransferObject :
+        shapeInstanceDataTransferObjects) {
+      shapeIds.add(shapeInstanceDataTransferObject.shapeId());
+    }
+    List<Long> distinctShapeIds = shapeIds.stream().distinct().toList();
+    Map<Long, Shape> shapes = new HashMap<>();
+    for (Shape shape : shapeRepository.findByIdInAndDeletedFalseAndCurrentTrue(distinctShapeIds)) {
+      shapes.put(shape.getId(), shape);
+    }
+
     List<ShapeInstance> shapeInstances = new ArrayList<>();
     for (ShapeInstanceDataTransferObject shapeInstanceDataTransferObject :
         shapeInstanceDataTransferObjects) {
-      Shape shape =
-          shapeRepository
-              .findByIdEqualsAndDeletedFalseAndCurrentTrue(
-                  shapeInstanceDataTransferObject.shapeId())
-              .orElseThrow(
-                  () ->
-                      new RuntimeException(
-                          "Shape not found with ID: " + shapeInstanceDataTransferObject.shapeId()));
+      Shape shape = shapes.get(shapeInstanceDataTransferObject.shapeId());
+      if (shape == null) {
+        throw new RuntimeException(
+            "Shape not found with ID: " + shapeInstanceDataTransferObject.shapeId());
+      }
       Instant shapeVersion =
           shapeInstanceDataTransferObject.shapeVersion() != null
               ? shapeInstanceDataTransferObject.shapeVersion()
@@ -275,25 +444,22 @@ public class ShapeManagementController {
           new ShapeInstance(
               shape.getId(), shapeVersion, shapeInstanceDataTransferObject.instructions());
       shapeInstances.add(shapeInstance);
-      logger.info("Creating ShapeInstance for shape ID: {}", shape.getId());
     }
     Iterable<ShapeInstance> savedShapeInstances = shapeInstanceRepository.saveAll(shapeInstances);
-    logger.info(
-        "Shape instances created: {}", savedShapeInstances.spliterator().getExactSizeIfKnown());
     List<ShapeInstanceResponseDataTransferObject> responseDtos = new ArrayList<>();
     for (ShapeInstance savedShapeInstance : savedShapeInstances) {
-      Shape shape =
-          shapeRepository
-              .findByIdEqualsAndDeletedFalseAndCurrentTrue(savedShapeInstance.getShapeId())
-              .orElse(null);
       responseDtos.add(
           new ShapeInstanceResponseDataTransferObject(
               savedShapeInstance.getId(),
-              shape,
+              shapes.get(savedShapeInstance.getShapeId()),
               savedShapeInstance.getShapeVersion(),
               savedShapeInstance.isTemplate(),
               savedShapeInstance.getInstructions()));
     }
+    logger.info(
+        "Shape instances created: {} of {} distinct shapes",
+        responseDtos.size(),
+        distinctShapeIds.size());
     return responseDtos;
   }
 }
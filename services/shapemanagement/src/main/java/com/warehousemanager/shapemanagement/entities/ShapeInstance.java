@@ -22,7 +22,8 @@ public class ShapeInstance {
   @SequenceGenerator(
       name = "shape_instance_seq_gen",
       sequenceName = "shape_instance_seq",
-      allocationSize = 1)
+      initialValue = 5,
+      allocationSize = 50)
   private Long id;
 
   /** ID of the shape that this instance represents. */
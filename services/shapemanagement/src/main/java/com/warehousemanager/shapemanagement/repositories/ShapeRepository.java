@@ -1,10 +1,16 @@
 package com.warehousemanager.shapemanagement.repositories;
 
 import com.warehousemanager.shapemanagement.entities.Shape;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository interface for managing Shape entities. This interface extends CrudRepository to
@@ -29,11 +35,28 @@ public interface ShapeRepository extends CrudRepository<Shape, Long> {
   boolean existsByIdEquals(Long id);
 
   /**
-   * Finds all shapes that are marked as current and not deleted.
+   * Streams all shapes that are marked as current and not deleted, ordered by ID. The rows are
+   * fetched from a database cursor in chunks, so the stream must be consumed within a transaction
+   * and closed afterwards.
    *
-   * @return a list of shapes that are current and not deleted
+   * @return a stream of shapes that are current and not deleted
    */
-  List<Shape> findByCurrentTrueAndDeletedFalse();
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<Shape> streamByCurrentTrueAndDeletedFalseOrderByIdAsc();
+
+  /**
+   * Finds a page of shapes that are marked as current and not deleted, starting after the given
+   * ID.
+   *
+   * @param afterId the ID after which the page starts
+   * @param limit the maximum number of shapes to return
+   * @return the shapes with an ID greater than the given one, ordered by ID
+   */
+  List<Shape> findByIdGreaterThanAndCurrentTrueAndDeletedFalseOrderByIdAsc(
+      Long afterId, Limit limit);
 
   /**
    * Finds all shapes by their ID that are not deleted, ordered by version in descending order.
@@ -51,4 +74,34 @@ public interface ShapeRepository extends CrudRepository<Shape, Long> {
    * @return an optional containing the shape if found, otherwise empty
    */
   Optional<Shape> findByIdEqualsAndDeletedFalseAndCurrentTrue(Long id);
+
+  /**
+   * Finds all shapes with the specified IDs that are not deleted and are marked as current.
+   *
+   * @param ids the list of shape IDs to search for
+   * @return a list of shapes that match the given IDs, are not deleted, and are current
+   */
+  List<Shape> findByIdInAndDeletedFalseAndCurrentTrue(List<Long> ids);
+
+  /**
+   * Finds all versions of a shape, both those still in the shape table and those moved to the shape
+   * history by the archiver.
+   *
+   * @param id the ID of the shape
+   * @return all versions of the shape, newest first
+   */
+  @Query(
+      value =
+          """
+          SELECT id, version, current, deleted, is_public, name, type
+          FROM shape
+          WHERE id = :id
+          UNION ALL
+          SELECT id, version, current, deleted, is_public, name, type
+          FROM shape_history
+          WHERE id = :id
+          ORDER BY version DESC
+          """,
+      nativeQuery = true)
+  List<Shape> findAllVersionsById(@Param("id") Long id);
 }